@@ -0,0 +1,76 @@
+package de.asbestian.jplex.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffers ASCII text on its way to a stream, formatting integers without intermediate strings.
+ *
+ * @author Sebastian Schenker
+ */
+final class AsciiWriter {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int MAX_INT_LENGTH = 11;
+
+  private final OutputStream out;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int size;
+
+  AsciiWriter(final OutputStream out) {
+    this.out = out;
+  }
+
+  AsciiWriter append(final char c) throws IOException {
+    ensure(1);
+    buffer[size++] = (byte) c;
+    return this;
+  }
+
+  AsciiWriter append(final String s) throws IOException {
+    ensure(s.length());
+    for (int i = 0; i < s.length(); ++i) {
+      buffer[size++] = (byte) s.charAt(i);
+    }
+    return this;
+  }
+
+  AsciiWriter append(final long value) throws IOException {
+    if (value < 0) {
+      append('-');
+      if (value == Long.MIN_VALUE) {
+        return append(Long.toString(value).substring(1));
+      }
+      return append(-value);
+    }
+    ensure(2 * MAX_INT_LENGTH);
+    final int start = size;
+    long remaining = value;
+    do {
+      buffer[size++] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining > 0);
+    for (int i = start, j = size - 1; i < j; ++i, --j) { // digits were written in reverse
+      final byte b = buffer[i];
+      buffer[i] = buffer[j];
+      buffer[j] = b;
+    }
+    return this;
+  }
+
+  void flush() throws IOException {
+    out.write(buffer, 0, size);
+    size = 0;
+    out.flush();
+  }
+
+  private void ensure(final int length) throws IOException {
+    if (size + length > buffer.length) {
+      out.write(buffer, 0, size);
+      size = 0;
+      if (length > buffer.length) {
+        throw new IllegalArgumentException("Text exceeds buffer size.");
+      }
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package de.asbestian.jplex.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes random lp files of configurable size and structure. The output is determined by the
+ * configuration including the seed, and is streamed, so that files of several gigabytes are
+ * written at disk speed without being held in memory.
+ *
+ * <p>The objective holds every column, so that columns are numbered in order. Each row holds the
+ * given share of the columns on average, chosen uniformly at random, written with the given
+ * number of addends per line.
+ *
+ * @author Sebastian Schenker
+ */
+public final class LpGenerator {
+
+  private static final byte CONTINUOUS = 0;
+  private static final byte INTEGER = 1;
+  private static final byte BINARY = 2;
+
+  private final int rows;
+  private final int columns;
+  private final double density;
+  private final int addendsPerLine;
+  private final double lowerBoundShare;
+  private final double upperBoundShare;
+  private final double rangeShare;
+  private final double freeShare;
+  private final double integerShare;
+  private final double binaryShare;
+  private final long seed;
+
+  private LpGenerator(final LpGeneratorBuilder builder) {
+    rows = builder.rows;
+    columns = builder.columns;
+    density = builder.density;
+    addendsPerLine = builder.addendsPerLine;
+    lowerBoundShare = builder.lowerBoundShare;
+    upperBoundShare = builder.upperBoundShare;
+    rangeShare = builder.rangeShare;
+    freeShare = builder.freeShare;
+    integerShare = builder.integerShare;
+    binaryShare = builder.binaryShare;
+    seed = builder.seed;
+  }
+
+  /** Writes the file and returns the number of nonzeros of its constraint matrix. */
+  public long write(final Path path) throws IOException {
+    try (final OutputStream out = Files.newOutputStream(path)) {
+      return write(out);
+    }
+  }
+
+  /** Writes the file to the given stream and returns the number of nonzeros of its matrix. */
+  public long write(final OutputStream out) throws IOException {
+    final var random = new SplittableRandom(seed);
+    final var writer = new AsciiWriter(out);
+    writer.append("\\ generated: rows ").append(rows).append(", columns ").append(columns)
+        .append(", seed ").append(seed).append("\nMinimize\n obj:");
+    for (int j = 0; j < columns; ++j) {
+      addend(writer, random, j, j);
+    }
+    writer.append("\nSubject To\n");
+    long nonzeros = 0;
+    for (int i = 0; i < rows; ++i) {
+      writer.append(" c").append(i).append(':');
+      nonzeros += writeRow(writer, random);
+      final double sense = random.nextDouble();
+      writer.append(sense < 0.6 ? " <= " : sense < 0.9 ? " >= " : " = ")
+          .append(random.nextInt(1000)).append('\n');
+    }
+    writeBounds(writer, random);
+    writeTypes(writer, random);
+    writer.append("End\n").flush();
+    return nonzeros;
+  }
+
+  // writes the addends of a row whose columns are chosen by skipping geometrically distributed gaps
+  private int writeRow(final AsciiWriter writer, final SplittableRandom random) throws IOException {
+    final double logComplement = Math.log1p(-density);
+    int count = 0;
+    long column = density >= 1 ? 0 : skip(random, logComplement);
+    if (column >= columns) { // rows are never empty
+      column = random.nextInt(columns);
+    }
+    while (column < columns) {
+      addend(writer, random, (int) column, count++);
+      column += density >= 1 ? 1 : 1 + skip(random, logComplement);
+    }
+    return count;
+  }
+
+  // gaps of at least the number of columns end the row, so larger ones are cut off
+  private int skip(final SplittableRandom random, final double logComplement) {
+    return (int) Math.min(columns, Math.floor(Math.log(1 - random.nextDouble()) / logComplement));
+  }
+
+  private void addend(final AsciiWriter writer, final SplittableRandom random, final int column,
+      final int position) throws IOException {
+    if (position > 0 && position % addendsPerLine == 0) {
+      writer.append("\n  ");
+    }
+    writer.append(random.nextBoolean() ? " + " : " - ");
+    final int hundredths = 1 + random.nextInt(9999);
+    writer.append(hundredths / 100).append('.').append((char) ('0' + hundredths / 10 % 10))
+        .append((char) ('0' + hundredths % 10)).append(" x").append(column);
+  }
+
+  private void writeBounds(final AsciiWriter writer, final SplittableRandom random)
+      throws IOException {
+    writer.append("Bounds\n");
+    for (int j = 0; j < columns; ++j) {
+      double share = random.nextDouble();
+      if ((share -= lowerBoundShare) < 0) {
+        writer.append(' ').append(-random.nextInt(100)).append(" <= x").append(j).append('\n');
+      } else if ((share -= upperBoundShare) < 0) {
+        writer.append(" x").append(j).append(" <= ").append(random.nextInt(1000)).append('\n');
+      } else if ((share -= rangeShare) < 0) {
+        // upper bounds are never negative, as binary columns are clipped to [0, 1]
+        writer.append(' ').append(-random.nextInt(100)).append(" <= x").append(j).append(" <= ")
+            .append(random.nextInt(1000)).append('\n');
+      } else if (share - freeShare < 0) {
+        writer.append(" x").append(j).append(" free\n");
+      }
+    }
+  }
+
+  private void writeTypes(final AsciiWriter writer, final SplittableRandom random)
+      throws IOException {
+    final byte[] types = new byte[columns];
+    for (int j = 0; j < columns; ++j) {
+      final double share = random.nextDouble();
+      types[j] = share < binaryShare ? BINARY : share < binaryShare + integerShare ? INTEGER : CONTINUOUS;
+    }
+    writeColumns(writer, "General\n", types, INTEGER);
+    writeColumns(writer, "Binary\n", types, BINARY);
+  }
+
+  private void writeColumns(final AsciiWriter writer, final String header, final byte[] types,
+      final byte type) throws IOException {
+    writer.append(header);
+    int count = 0;
+    for (int j = 0; j < columns; ++j) {
+      if (types[j] == type) {
+        writer.append(++count % addendsPerLine == 0 ? "\n x" : " x").append(j);
+      }
+    }
+    writer.append('\n');
+  }
+
+  public static final class LpGeneratorBuilder {
+    private int rows = 1000;
+    private int columns = 1000;
+    private double density = 0.01;
+    private int addendsPerLine = 8;
+    private double lowerBoundShare = 0.1;
+    private double upperBoundShare = 0.2;
+    private double rangeShare = 0.1;
+    private double freeShare = 0.05;
+    private double integerShare = 0.1;
+    private double binaryShare = 0.1;
+    private long seed = 0;
+
+    public LpGeneratorBuilder setRows(final int value) {
+      rows = value;
+      return this;
+    }
+
+    public LpGeneratorBuilder setColumns(final int value) {
+      columns = value;
+      return this;
+    }
+
+    /** Sets the expected share of the columns appearing in a row. */
+    public LpGeneratorBuilder setDensity(final double value) {
+      density = value;
+      return this;
+    }
+
+    public LpGeneratorBuilder setAddendsPerLine(final int value) {
+      addendsPerLine = value;
+      return this;
+    }
+
+    /**
+     * Sets the shares of the columns with only a lower bound, only an upper bound, both bounds
+     * and no bounds at all; the remaining columns keep the default bounds.
+     */
+    public LpGeneratorBuilder setBoundMix(final double lower, final double upper, final double range,
+        final double free) {
+      lowerBoundShare = lower;
+      upperBoundShare = upper;
+      rangeShare = range;
+      freeShare = free;
+      return this;
+    }
+
+    public LpGeneratorBuilder setIntegerShare(final double value) {
+      integerShare = value;
+      return this;
+    }
+
+    public LpGeneratorBuilder setBinaryShare(final double value) {
+      binaryShare = value;
+      return this;
+    }
+
+    public LpGeneratorBuilder setSeed(final long value) {
+      seed = value;
+      return this;
+    }
+
+    public LpGenerator build() {
+      if (rows < 0 || columns < 1 || addendsPerLine < 1) {
+        throw new IllegalArgumentException("Expected at least one column and one addend per line.");
+      }
+      if (density <= 0 || density > 1) {
+        throw new IllegalArgumentException("Expected density within (0, 1].");
+      }
+      if (lowerBoundShare + upperBoundShare + rangeShare + freeShare > 1
+          || integerShare + binaryShare > 1) {
+        throw new IllegalArgumentException("Expected shares summing to at most 1.");
+      }
+      return new LpGenerator(this);
+    }
+  }
+
+  /**
+   * Writes a file with the given options: --rows n, --columns n, --density d, --addends-per-line
+   * n, --integer-share d, --binary-share d, --seed n, followed by the path of the file.
+   */
+  public static void main(final String... args) throws IOException {
+    final var builder = new LpGeneratorBuilder();
+    for (int i = 0; i < args.length - 1; i += 2) {
+      switch (args[i]) {
+        case "--rows" -> builder.setRows(Integer.parseInt(args[i + 1]));
+        case "--columns" -> builder.setColumns(Integer.parseInt(args[i + 1]));
+        case "--density" -> builder.setDensity(Double.parseDouble(args[i + 1]));
+        case "--addends-per-line" -> builder.setAddendsPerLine(Integer.parseInt(args[i + 1]));
+        case "--integer-share" -> builder.setIntegerShare(Double.parseDouble(args[i + 1]));
+        case "--binary-share" -> builder.setBinaryShare(Double.parseDouble(args[i + 1]));
+        case "--seed" -> builder.setSeed(Long.parseLong(args[i + 1]));
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    final long nonzeros = builder.build().write(Path.of(args[args.length - 1]));
+    System.out.println("Wrote " + nonzeros + " nonzeros to " + args[args.length - 1]);
+  }
+}
@@ -0,0 +1,58 @@
+package de.asbestian.jplex.benchmarks;
+
+import de.asbestian.jplex.input.LpFileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full parse of each file within the instances directory, which is taken from the system property
+ * {@code jplex.instances} and defaults to {@code instances}.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ParseBenchmark {
+
+  @Param({"afiro.lp", "boeing1.lp", "boeing2.lp", "fit1d.lp", "fit2d.lp", "kb2.lp", "sc50a.lp"})
+  public String instance;
+
+  private String path;
+  private long size;
+  private int nonzeros;
+
+  @Setup
+  public void setup() throws IOException {
+    path = Path.of(System.getProperty("jplex.instances", "instances"), instance).toString();
+    size = Files.size(Path.of(path));
+    final var reader = new LpFileReader(path);
+    if (reader.hasFailed()) {
+      throw new IllegalStateException("Cannot read " + path);
+    }
+    nonzeros = reader.getConstraintMatrix().getNumberOfNonzeros();
+  }
+
+  @Benchmark
+  public LpFileReader parse(final Throughput throughput) {
+    final var reader = new LpFileReader(path);
+    throughput.add(size, nonzeros);
+    return reader;
+  }
+}
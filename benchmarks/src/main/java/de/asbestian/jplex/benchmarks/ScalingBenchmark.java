@@ -0,0 +1,76 @@
+package de.asbestian.jplex.benchmarks;
+
+import de.asbestian.jplex.benchmarks.LpGenerator.LpGeneratorBuilder;
+import de.asbestian.jplex.input.LpFileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full parse of generated files of growing size, sequentially and in parallel mode. Rows and
+ * columns grow with the square root of the number of nonzeros. Larger sizes can be given on the
+ * command line, e.g. {@code -p nonzeros=100000000}; the heap of the forked JVM may need to be
+ * raised with {@code -jvmArgsAppend -Xmx...}.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ScalingBenchmark {
+
+  @Param({"100000", "1000000", "10000000"})
+  public long nonzeros;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  private Path path;
+  private long size;
+  private long actualNonzeros;
+
+  @Setup
+  public void setup() throws IOException {
+    final int dimension = (int) Math.max(10, Math.sqrt(nonzeros * 100.));
+    path = Files.createTempFile("jplex-scaling", ".lp");
+    actualNonzeros = new LpGeneratorBuilder()
+        .setRows(dimension)
+        .setColumns(dimension)
+        .setDensity((double) nonzeros / dimension / dimension)
+        .setSeed(nonzeros)
+        .build()
+        .write(path);
+    size = Files.size(path);
+    if (new LpFileReader(path.toString(), parallel).hasFailed()) {
+      throw new IllegalStateException("Cannot read generated " + path);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  @Benchmark
+  public LpFileReader parse(final Throughput throughput) {
+    final var reader = new LpFileReader(path.toString(), parallel);
+    throughput.add(size, actualNonzeros);
+    return reader;
+  }
+}
@@ -0,0 +1,34 @@
+package de.asbestian.jplex.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the input consumed by a benchmark, reported by JMH as megabytes per second and nonzeros
+ * per second next to the score.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Thread)
+@AuxCounters(Type.OPERATIONS)
+public class Throughput {
+
+  public double megabytes;
+  public long nonzeros;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    megabytes = 0;
+    nonzeros = 0;
+  }
+
+  /** Records one pass over an input of the given size holding the given number of nonzeros. */
+  public void add(final long bytes, final long nonzeros) {
+    this.megabytes += bytes / 1e6;
+    this.nonzeros += nonzeros;
+  }
+}
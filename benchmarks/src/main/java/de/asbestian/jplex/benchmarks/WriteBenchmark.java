@@ -0,0 +1,81 @@
+package de.asbestian.jplex.benchmarks;
+
+import de.asbestian.jplex.input.LpFileReader;
+import de.asbestian.jplex.input.LpFileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes the model of each file within the instances directory in lp format to a channel which
+ * discards its input, so that formatting rather than the file system is measured.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class WriteBenchmark {
+
+  @Param({"afiro.lp", "boeing1.lp", "boeing2.lp", "fit1d.lp", "fit2d.lp", "kb2.lp", "sc50a.lp"})
+  public String instance;
+
+  private final LpFileWriter writer = new LpFileWriter();
+  private final DiscardingChannel channel = new DiscardingChannel();
+  private LpFileReader model;
+  private int nonzeros;
+
+  private static final class DiscardingChannel implements WritableByteChannel {
+    private long written;
+
+    @Override
+    public int write(final ByteBuffer src) {
+      final int length = src.remaining();
+      src.position(src.limit());
+      written += length;
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Setup
+  public void setup() {
+    final var path = Path.of(System.getProperty("jplex.instances", "instances"), instance);
+    model = new LpFileReader(path.toString());
+    if (model.hasFailed()) {
+      throw new IllegalStateException("Cannot read " + path);
+    }
+    nonzeros = model.getConstraintMatrix().getNumberOfNonzeros();
+  }
+
+  @Benchmark
+  public long write(final Throughput throughput) throws IOException {
+    final long before = channel.written;
+    writer.write(model, channel);
+    throughput.add(channel.written - before, nonzeros);
+    return channel.written;
+  }
+}
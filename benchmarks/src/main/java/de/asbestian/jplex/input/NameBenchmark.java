@@ -0,0 +1,84 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.benchmarks.Throughput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation of variable names, i.e. scanning them with the lexer, and their lookup in the symbol
+ * table.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class NameBenchmark {
+
+  private static final int COUNT = 10_000;
+  private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_.0123456789";
+
+  private LpLexer lexer;
+  private SymbolTable symbols;
+  private int length;
+
+  @Setup
+  public void setup() throws IOException {
+    final var random = new Random(42);
+    final var text = new StringBuilder();
+    for (int i = 0; i < COUNT; ++i) {
+      text.append((char) ('a' + random.nextInt(26)));
+      final int nameLength = random.nextInt(12);
+      for (int j = 0; j < nameLength; ++j) {
+        text.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+      }
+      text.append(' ');
+    }
+    final byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+    length = bytes.length;
+    lexer = new LpLexer(new ArraySource(bytes));
+    symbols = new SymbolTable();
+    for (int pos = 0; pos < length; ) {
+      final int end = lexer.scanName(pos, length);
+      symbols.intern(lexer.window(), pos, end);
+      pos = end + 1;
+    }
+  }
+
+  @Benchmark
+  public int scan(final Throughput throughput) {
+    int names = 0;
+    for (int pos = 0; pos < length; ++names) {
+      pos = lexer.scanName(pos, length) + 1;
+    }
+    throughput.add(length, 0);
+    return names;
+  }
+
+  @Benchmark
+  public int lookup(final Throughput throughput) {
+    int sum = 0;
+    for (int pos = 0; pos < length; ) {
+      final int end = lexer.scanName(pos, length);
+      sum += symbols.indexOf(lexer.window(), pos, end);
+      pos = end + 1;
+    }
+    throughput.add(length, 0);
+    return sum;
+  }
+}
@@ -0,0 +1,67 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.benchmarks.Throughput;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of coefficients as found in lp files: integers, decimals and numbers in scientific
+ * notation, separated by single blanks.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class NumberParserBenchmark {
+
+  private static final int COUNT = 10_000;
+
+  private ByteBuffer bytes;
+  private int[] starts;
+  private int[] ends;
+
+  @Setup
+  public void setup() {
+    final var random = new Random(42);
+    final var text = new StringBuilder();
+    starts = new int[COUNT];
+    ends = new int[COUNT];
+    for (int i = 0; i < COUNT; ++i) {
+      starts[i] = text.length();
+      switch (i % 3) {
+        case 0 -> text.append(random.nextInt(1000));
+        case 1 -> text.append(random.nextInt(100_000) / 1000.);
+        default -> text.append(random.nextDouble() * 1e9).append('e').append(random.nextInt(20) - 10);
+      }
+      ends[i] = text.length();
+      text.append(' ');
+    }
+    bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Benchmark
+  public double parse(final Throughput throughput) {
+    double sum = 0;
+    for (int i = 0; i < COUNT; ++i) {
+      sum += NumberParser.parse(bytes, starts[i], ends[i]);
+    }
+    throughput.add(bytes.limit(), 0);
+    return sum;
+  }
+}
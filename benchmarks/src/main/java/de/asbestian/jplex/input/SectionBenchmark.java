@@ -0,0 +1,88 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.benchmarks.Throughput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of linear expressions and of bounds, each measured on an input in memory which consists
+ * almost entirely of the respective kind of line. The parsed contents are passed to a listener
+ * which ignores them.
+ *
+ * @author Sebastian Schenker
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SectionBenchmark {
+
+  private static final int VARIABLES = 1_000;
+  private static final int LINES = 10_000;
+  private static final int ADDENDS_PER_LINE = 10;
+  private static final LpListener IGNORE = new LpListener() {};
+
+  private byte[] linearExpressions;
+  private byte[] bounds;
+
+  private static StringBuilder header() {
+    final var text = new StringBuilder("Minimize\n obj:");
+    for (int j = 0; j < VARIABLES; ++j) {
+      text.append(" + x").append(j);
+    }
+    return text.append("\nSubject To\n");
+  }
+
+  @Setup
+  public void setup() {
+    final var random = new Random(42);
+    final var expressions = header();
+    for (int i = 0; i < LINES; ++i) {
+      expressions.append(" c").append(i).append(':');
+      for (int k = 0; k < ADDENDS_PER_LINE; ++k) {
+        expressions.append(random.nextBoolean() ? " + " : " - ").append(random.nextInt(1000) / 10.)
+            .append(" x").append(random.nextInt(VARIABLES));
+      }
+      expressions.append(" <= ").append(random.nextInt(100)).append('\n');
+    }
+    linearExpressions = expressions.append("End\n").toString().getBytes(StandardCharsets.US_ASCII);
+    final var boundLines = header().append("Bounds\n");
+    for (int i = 0; i < LINES; ++i) {
+      final int variable = random.nextInt(VARIABLES);
+      switch (i % 4) {
+        case 0 -> boundLines.append(" x").append(variable).append(" <= ").append(i);
+        case 1 -> boundLines.append(' ').append(-i).append(" <= x").append(variable);
+        case 2 -> boundLines.append(' ').append(-i).append(" <= x").append(variable).append(" <= ").append(i);
+        default -> boundLines.append(" x").append(variable).append(" free");
+      }
+      boundLines.append('\n');
+    }
+    bounds = boundLines.append("End\n").toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  @Benchmark
+  public void linearExpressions(final Throughput throughput) throws IOException {
+    LpParser.parse(LpSource.of(linearExpressions), IGNORE);
+    throughput.add(linearExpressions.length, (long) LINES * ADDENDS_PER_LINE);
+  }
+
+  @Benchmark
+  public void bounds(final Throughput throughput) throws IOException {
+    LpParser.parse(LpSource.of(bounds), IGNORE);
+    throughput.add(bounds.length, 0);
+  }
+}
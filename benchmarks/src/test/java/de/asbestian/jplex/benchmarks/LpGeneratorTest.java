@@ -0,0 +1,86 @@
+package de.asbestian.jplex.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.asbestian.jplex.benchmarks.LpGenerator.LpGeneratorBuilder;
+import de.asbestian.jplex.input.LpFileReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class LpGeneratorTest {
+
+  @TempDir
+  Path tempDir;
+
+  private static LpGeneratorBuilder builder() {
+    return new LpGeneratorBuilder()
+        .setRows(300)
+        .setColumns(200)
+        .setDensity(0.05)
+        .setAddendsPerLine(3)
+        .setBoundMix(0.2, 0.2, 0.2, 0.2)
+        .setIntegerShare(0.25)
+        .setBinaryShare(0.25);
+  }
+
+  private static byte[] generate(final LpGenerator generator) throws IOException {
+    final var out = new ByteArrayOutputStream();
+    generator.write(out);
+    return out.toByteArray();
+  }
+
+  @Test
+  void sameSeed_sameOutput() throws IOException {
+    assertArrayEquals(generate(builder().setSeed(7).build()), generate(builder().setSeed(7).build()));
+    assertFalse(Arrays.equals(generate(builder().setSeed(7).build()),
+        generate(builder().setSeed(8).build())));
+  }
+
+  @Test
+  void generatedFile_readWithConfiguredDimensions() throws IOException {
+    final Path path = tempDir.resolve("generated.lp");
+
+    final long nonzeros = builder().setSeed(3).build().write(path);
+    final var reader = new LpFileReader(path.toString());
+
+    assertFalse(reader.hasFailed());
+    assertEquals(300, reader.getNumberOfConstraints());
+    assertEquals(200, reader.getNumberOfVariables());
+    assertEquals(nonzeros, reader.getConstraintMatrix().getNumberOfNonzeros());
+    assertTrue(Math.abs(nonzeros - 300 * 200 * 0.05) < 300 * 200 * 0.01);
+    assertFalse(reader.getIntegerVariables().isEmpty());
+    assertFalse(reader.getBinaryVariables().isEmpty());
+  }
+
+  @Test
+  void defaultBuilder_readable() throws IOException {
+    final Path path = tempDir.resolve("default.lp");
+    for (long seed = 0; seed < 20; ++seed) {
+      final long nonzeros = new LpGeneratorBuilder().setSeed(seed).build().write(path);
+      final var reader = new LpFileReader(path.toString());
+
+      assertFalse(reader.hasFailed(), "seed " + seed);
+      assertEquals(nonzeros, reader.getConstraintMatrix().getNumberOfNonzeros());
+    }
+  }
+
+  @Test
+  void tinyDensity_oneColumnPerRow() throws IOException {
+    final Path path = tempDir.resolve("sparse.lp");
+
+    final long nonzeros = builder().setDensity(1e-10).build().write(path);
+    final var reader = new LpFileReader(path.toString());
+
+    assertFalse(reader.hasFailed());
+    assertEquals(300, nonzeros);
+    assertEquals(nonzeros, reader.getConstraintMatrix().getNumberOfNonzeros());
+  }
+}
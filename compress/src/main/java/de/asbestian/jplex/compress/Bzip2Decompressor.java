@@ -0,0 +1,28 @@
+package de.asbestian.jplex.compress;
+
+import de.asbestian.jplex.input.Decompressor;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Decodes bzip2 inputs, including those made of several concatenated streams.
+ *
+ * @author Sebastian Schenker
+ */
+public final class Bzip2Decompressor implements Decompressor {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  @Override
+  public boolean matches(final byte[] head, final int length) {
+    return length >= 3 && head[0] == 'B' && head[1] == 'Z' && head[2] == 'h';
+  }
+
+  @Override
+  public InputStream decode(final InputStream compressed) throws IOException {
+    // the decoder reads byte by byte
+    return new BZip2CompressorInputStream(new BufferedInputStream(compressed, BUFFER_SIZE), true);
+  }
+}
@@ -0,0 +1,25 @@
+package de.asbestian.jplex.compress;
+
+import de.asbestian.jplex.input.Decompressor;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+
+/**
+ * Decodes Zstandard inputs.
+ *
+ * @author Sebastian Schenker
+ */
+public final class ZstdDecompressor implements Decompressor {
+
+  @Override
+  public boolean matches(final byte[] head, final int length) {
+    return length >= 4 && head[0] == (byte) 0x28 && head[1] == (byte) 0xb5
+        && head[2] == (byte) 0x2f && head[3] == (byte) 0xfd;
+  }
+
+  @Override
+  public InputStream decode(final InputStream compressed) throws IOException {
+    return new ZstdCompressorInputStream(compressed);
+  }
+}
@@ -0,0 +1,73 @@
+package de.asbestian.jplex.compress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import de.asbestian.jplex.input.LpFileReader;
+import de.asbestian.jplex.input.LpSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class DecompressorTest {
+
+  private static final String MODEL = """
+      Maximize
+       obj: x + 2 y
+      Subject To
+       c1: x + y <= 4
+       c2: x - y >= -2
+      Bounds
+       x <= 3
+      General
+       y
+      End
+      """;
+
+  @TempDir
+  Path tempDir;
+
+  private interface Compressor {
+    OutputStream wrap(OutputStream out) throws IOException;
+  }
+
+  private Path compress(final String name, final Compressor compressor) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try (final var out = compressor.wrap(bytes)) {
+      out.write(MODEL.getBytes());
+    }
+    final Path path = tempDir.resolve(name);
+    Files.write(path, bytes.toByteArray());
+    return path;
+  }
+
+  private static void assertModel(final LpFileReader reader) {
+    assertFalse(reader.hasFailed());
+    assertEquals(2, reader.getNumberOfVariables());
+    assertEquals(2, reader.getNumberOfConstraints());
+    assertEquals(3., reader.getVariableStore().ub()[0]);
+  }
+
+  @Test
+  void bzip2File_decompressed() throws IOException {
+    final Path path = compress("model.lp.bz2", BZip2CompressorOutputStream::new);
+
+    assertModel(new LpFileReader(path.toString()));
+    assertModel(new LpFileReader(LpSource.of(Files.readAllBytes(path))));
+  }
+
+  @Test
+  void zstdFile_decompressed() throws IOException {
+    final Path path = compress("model.lp.zst", ZstdCompressorOutputStream::new);
+
+    assertModel(new LpFileReader(path.toString()));
+    assertModel(new LpFileReader(LpSource.of(Files.newInputStream(path))));
+  }
+}
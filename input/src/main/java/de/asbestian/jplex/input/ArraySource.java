@@ -0,0 +1,40 @@
+package de.asbestian.jplex.input;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Supplies an input held in memory as a single window.
+ *
+ * @author Sebastian Schenker
+ */
+final class ArraySource implements ByteSource {
+
+  private final ByteBuffer bytes;
+
+  ArraySource(final byte[] bytes) {
+    this.bytes = ByteBuffer.wrap(bytes);
+  }
+
+  @Override
+  public ByteBuffer first() {
+    return bytes;
+  }
+
+  @Override
+  public long offset() {
+    return 0;
+  }
+
+  @Override
+  public boolean hasMore() {
+    return false;
+  }
+
+  @Override
+  public ByteBuffer advance(final int from) {
+    throw new IllegalStateException("No input beyond the only window.");
+  }
+
+  @Override
+  public void close() {}
+}
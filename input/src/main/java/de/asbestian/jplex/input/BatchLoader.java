@@ -0,0 +1,173 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads many lp files concurrently on a bounded number of threads within a single JVM. The memory
+ * needed by the files being read at the same time is capped, a file needing more than the cap
+ * being read on its own. A file that cannot be read is reported as failed without affecting the
+ * others.
+ *
+ * <p>The cap is approximate: the memory needed for a file is estimated from the size of its lp
+ * text, which is taken from the gzip trailer for gzip files and otherwise estimated from the
+ * compressed size by a typical compression ratio, times a typical ratio of the memory used while
+ * parsing to the size of the text. Unusually dense models or compression ratios may exceed it.
+ *
+ * @author Sebastian Schenker
+ */
+public final class BatchLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchLoader.class);
+  private static final int PERMIT_SIZE = 1 << 10; // bytes per semaphore permit
+  // typical ratio of the memory used while parsing, including the model, to the size of the text
+  static final int MODEL_EXPANSION = 4;
+  // typical ratios of the size of lp text to its compressed size
+  static final int GZIP_EXPANSION = 8;
+  static final int ZSTD_EXPANSION = 10;
+  static final int BZIP2_EXPANSION = 12;
+  private static final List<String> EXTENSIONS = List.of(".lp", ".lp.gz", ".lp.zst", ".lp.bz2");
+
+  /** Outcome of reading a single file; exactly one of model and failure is null. */
+  public record Result(Path path, LpFileReader model, Throwable failure, long elapsedNanos) {
+
+    public boolean succeeded() {
+      return failure == null;
+    }
+  }
+
+  private final int threads;
+  private final int maxPermits;
+
+  /**
+   * Uses the given number of threads, reading files estimated to need at most maxInFlightBytes in
+   * total at the same time.
+   */
+  public BatchLoader(final int threads, final long maxInFlightBytes) {
+    if (threads < 1 || maxInFlightBytes < 1) {
+      throw new IllegalArgumentException("Expected positive number of threads and byte limit.");
+    }
+    this.threads = threads;
+    this.maxPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, maxInFlightBytes / PERMIT_SIZE));
+  }
+
+  /** Returns the lp files, possibly compressed, within the given directory in name order. */
+  public static List<Path> lpFiles(final Path directory) throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> EXTENSIONS.stream().anyMatch(file.getFileName().toString()::endsWith))
+          .filter(Files::isRegularFile)
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Reads the given files and passes each result to the given consumer as soon as it is
+   * available, returning when all files have been read. The consumer is called by one thread at a
+   * time; the memory held by a model is released once the consumer drops it.
+   */
+  public void load(final List<Path> paths, final Consumer<Result> consumer)
+      throws InterruptedException {
+    load(paths, consumer, path -> new LpFileReader(path.toString()));
+  }
+
+  // reads each file with the given reader
+  void load(final List<Path> paths, final Consumer<Result> consumer,
+      final Function<Path, LpFileReader> reader) throws InterruptedException {
+    final var inFlight = new Semaphore(maxPermits);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+      final var thread = new Thread(task, "lp-batch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (final var path : paths) {
+        final int permits = permits(path);
+        inFlight.acquire(permits);
+        executor.execute(() -> {
+          final long start = System.nanoTime();
+          try {
+            Result result;
+            Error error = null;
+            try {
+              final var model = reader.apply(path);
+              result = model.getFailure()
+                  .map(failure -> new Result(path, null, failure, System.nanoTime() - start))
+                  .orElseGet(() -> new Result(path, model, null, System.nanoTime() - start));
+            } catch (final Throwable e) {
+              LOGGER.error("Problem reading input file {}: {}", path, e.toString());
+              result = new Result(path, null, e, System.nanoTime() - start);
+              if (e instanceof Error fatal) {
+                error = fatal;
+              }
+            }
+            synchronized (consumer) {
+              consumer.accept(result);
+            }
+            if (error != null) {
+              throw error;
+            }
+          } finally {
+            inFlight.release(permits);
+          }
+        });
+      }
+    } finally {
+      executor.shutdown();
+    }
+    while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+      LOGGER.debug("Waiting for files estimated to need {} bytes.",
+          (long) (maxPermits - inFlight.availablePermits()) * PERMIT_SIZE);
+    }
+  }
+
+  // a single file never takes more than all permits, so it cannot wait forever
+  private int permits(final Path path) {
+    try {
+      return (int) Math.min(maxPermits, Math.max(1, estimatedBytes(path) / PERMIT_SIZE));
+    } catch (final IOException e) {
+      return 1; // reported when reading the file
+    }
+  }
+
+  /** Estimates the memory needed for reading the given file; see the class comment. */
+  static long estimatedBytes(final Path path) throws IOException {
+    try (final FileChannel channel = FileChannel.open(path)) {
+      final long size = channel.size();
+      final var head = ByteBuffer.allocate(4);
+      channel.read(head, 0);
+      final long textSize;
+      if (head.position() >= 2 && (head.get(0) & 0xff) == 0x1f && (head.get(1) & 0xff) == 0x8b) {
+        // the trailer holds the uncompressed size modulo 2^32 of the last member; a size below the
+        // compressed one means that it wrapped around or that there are several members
+        final var trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(trailer, Math.max(0, size - 4));
+        final long uncompressed = trailer.position() == 4 ? trailer.getInt(0) & 0xffffffffL : 0;
+        textSize = uncompressed >= size ? uncompressed : size * GZIP_EXPANSION;
+      } else if (head.position() == 4 && head.getInt(0) == 0x28b52ffd) {
+        textSize = size * ZSTD_EXPANSION;
+      } else if (head.position() >= 3 && head.get(0) == 'B' && head.get(1) == 'Z'
+          && head.get(2) == 'h') {
+        textSize = size * BZIP2_EXPANSION;
+      } else {
+        textSize = size;
+      }
+      return textSize * MODEL_EXPANSION;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package de.asbestian.jplex.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Supplies the bytes of an input as a sequence of consecutive windows.
+ *
+ * @author Sebastian Schenker
+ */
+interface ByteSource extends Closeable {
+
+  /** Returns the first window of the input. */
+  ByteBuffer first() throws IOException;
+
+  /** Returns the position of the first byte of the current window within the input. */
+  long offset();
+
+  /** Returns whether the input holds bytes beyond the current window. */
+  boolean hasMore();
+
+  /**
+   * Returns the next window. It starts with the bytes from position {@code from} of the current
+   * window onwards, followed by further bytes of the input.
+   */
+  ByteBuffer advance(int from) throws IOException;
+}
@@ -0,0 +1,146 @@
+package de.asbestian.jplex.input;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Constraint matrix in compressed sparse column (CSC) format. The coefficients of column j are
+ * stored at positions colStart[j] to colStart[j + 1] - 1 of the rowIndex and value arrays, ordered
+ * by row.
+ *
+ * <p>The accessors return the internal arrays without copying; callers must not modify them.
+ *
+ * @author Sebastian Schenker
+ */
+public final class ColumnMatrix {
+
+  private static final int MIN_BLOCK_NONZEROS = 1 << 15;
+  private static final long MAX_OFFSET_ENTRIES = 1L << 24;
+
+  private final int numberOfRows;
+  private final int[] colStart;
+  private final int[] rowIndex;
+  private final double[] value;
+
+  private ColumnMatrix(final int numberOfRows, final int[] colStart, final int[] rowIndex,
+      final double[] value) {
+    this.numberOfRows = numberOfRows;
+    this.colStart = colStart;
+    this.rowIndex = rowIndex;
+    this.value = value;
+  }
+
+  public int getNumberOfRows() {
+    return numberOfRows;
+  }
+
+  public int getNumberOfColumns() {
+    return colStart.length - 1;
+  }
+
+  public int getNumberOfNonzeros() {
+    return value.length;
+  }
+
+  public int[] colStart() {
+    return colStart;
+  }
+
+  public int[] rowIndex() {
+    return rowIndex;
+  }
+
+  public double[] value() {
+    return value;
+  }
+
+  /**
+   * Transposes the given row-wise matrix by a counting sort. The rows are split into blocks of
+   * roughly equal numbers of nonzeros; each block counts and later scatters its nonzeros in
+   * parallel, using its own offset per column.
+   */
+  static ColumnMatrix transpose(final ConstraintMatrix rows) {
+    final int m = rows.getNumberOfRows();
+    final int n = rows.getNumberOfColumns();
+    final int nnz = rows.getNumberOfNonzeros();
+    final int[] rowStart = rows.rowStart();
+    final int[] colIndex = rows.colIndex();
+    final double[] rowValue = rows.value();
+    final int[] blockStart = splitRows(rowStart, m, numberOfBlocks(n, nnz));
+    final int blocks = blockStart.length - 1;
+
+    // count the nonzeros per column within each block
+    final int[][] offsets = new int[blocks][];
+    IntStream.range(0, blocks).parallel().forEach(b -> {
+      final int[] count = new int[n];
+      for (int k = rowStart[blockStart[b]]; k < rowStart[blockStart[b + 1]]; ++k) {
+        ++count[colIndex[k]];
+      }
+      offsets[b] = count;
+    });
+
+    // turn the counts into offsets of each block relative to the column start
+    final int[] colStart = new int[n + 1];
+    final int[] colRanges = splitEvenly(n, blocks);
+    IntStream.range(0, colRanges.length - 1).parallel().forEach(r -> {
+      for (int j = colRanges[r]; j < colRanges[r + 1]; ++j) {
+        int pos = 0;
+        for (final int[] offset : offsets) {
+          final int count = offset[j];
+          offset[j] = pos;
+          pos += count;
+        }
+        colStart[j + 1] = pos;
+      }
+    });
+    for (int j = 0; j < n; ++j) {
+      colStart[j + 1] += colStart[j];
+    }
+
+    // scatter the nonzeros of each block into its reserved positions
+    final int[] rowIndex = new int[nnz];
+    final double[] value = new double[nnz];
+    IntStream.range(0, blocks).parallel().forEach(b -> {
+      final int[] offset = offsets[b];
+      for (int i = blockStart[b]; i < blockStart[b + 1]; ++i) {
+        for (int k = rowStart[i]; k < rowStart[i + 1]; ++k) {
+          final int j = colIndex[k];
+          final int pos = colStart[j] + offset[j]++;
+          rowIndex[pos] = i;
+          value[pos] = rowValue[k];
+        }
+      }
+    });
+    return new ColumnMatrix(m, colStart, rowIndex, value);
+  }
+
+  private static int numberOfBlocks(final int n, final int nnz) {
+    final long byWork = nnz / MIN_BLOCK_NONZEROS;
+    final long byMemory = MAX_OFFSET_ENTRIES / Math.max(1, n);
+    final long byCores = 4L * ForkJoinPool.getCommonPoolParallelism();
+    return (int) Math.max(1, Math.min(byCores, Math.min(byWork, byMemory)));
+  }
+
+  /** Returns the first row of each block followed by m; blocks hold similar numbers of nonzeros. */
+  private static int[] splitRows(final int[] rowStart, final int m, final int blocks) {
+    final int nnz = rowStart[m];
+    final int[] blockStart = new int[blocks + 1];
+    for (int b = 1; b < blocks; ++b) {
+      final int target = (int) ((long) b * nnz / blocks);
+      final int found = Arrays.binarySearch(rowStart, 0, m + 1, target);
+      final int row = found >= 0 ? found : -found - 1;
+      blockStart[b] = Math.max(blockStart[b - 1], Math.min(row, m));
+    }
+    blockStart[blocks] = m;
+    return blockStart;
+  }
+
+  private static int[] splitEvenly(final int n, final int parts) {
+    final int[] start = new int[parts + 1];
+    for (int p = 0; p <= parts; ++p) {
+      start[p] = (int) ((long) p * n / parts);
+    }
+    return start;
+  }
+}
@@ -2,14 +2,18 @@ package de.asbestian.jplex.input;
 
 import java.util.Arrays;
 import java.util.Objects;
-import org.eclipse.collections.api.map.ImmutableMap;
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.impl.map.mutable.UnifiedMap;
+import org.eclipse.collections.api.map.primitive.ImmutableObjectDoubleMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectDoubleMap;
+import org.eclipse.collections.api.map.primitive.ObjectDoubleMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectDoubleHashMap;
 
 /**
+ * A constraint with its coefficients by variable name. The coefficients are held in a primitive
+ * map, so no coefficient is boxed.
+ *
  * @author Sebastian Schenker
  */
-public record Constraint(String name, int lineNumber, ImmutableMap<String, Double> coefficients, ConstraintSense sense, double rhs) {
+public record Constraint(String name, int lineNumber, ImmutableObjectDoubleMap<String> coefficients, ConstraintSense sense, double rhs) {
 
   public enum ConstraintSense {
     LE("<="),
@@ -42,7 +46,7 @@ public record Constraint(String name, int lineNumber, ImmutableMap<String, Doubl
   public static final class ConstraintBuilder {
 
     private String name = null;
-    private final MutableMap<String, Double> coefficients = new UnifiedMap<>();
+    private final MutableObjectDoubleMap<String> coefficients = new ObjectDoubleHashMap<>();
     private Integer lineNumber = null;
     private ConstraintSense sense = null;
     private Double rhs = null;
@@ -57,8 +61,14 @@ public record Constraint(String name, int lineNumber, ImmutableMap<String, Doubl
       return this;
     }
 
-    public ConstraintBuilder mergeCoefficients(final ImmutableMap<String, Double> map) {
-      map.forEachKeyValue((key, value) -> coefficients.merge(key, value, Double::sum));
+    /** Adds the given coefficient to the one of the given variable, if there is one. */
+    public ConstraintBuilder addCoefficient(final String variable, final double value) {
+      coefficients.addToValue(variable, value);
+      return this;
+    }
+
+    public ConstraintBuilder mergeCoefficients(final ObjectDoubleMap<String> map) {
+      map.forEachKeyValue(coefficients::addToValue);
       return this;
     }
 
@@ -0,0 +1,195 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+/**
+ * Constraint matrix in compressed sparse row (CSR) format. The coefficients of row i are stored at
+ * positions rowStart[i] to rowStart[i + 1] - 1 of the colIndex and value arrays. Columns are
+ * indexed as in the {@link SymbolTable} of the model; the sense of row i is encoded as the ordinal
+ * of its {@link ConstraintSense}.
+ *
+ * <p>The accessors return the internal arrays without copying; callers must not modify them.
+ *
+ * @author Sebastian Schenker
+ */
+public final class ConstraintMatrix {
+
+  private final int numberOfColumns;
+  private final int[] rowStart;
+  private final int[] colIndex;
+  private final double[] value;
+  private final double[] rhs;
+  private final byte[] sense;
+  private volatile ColumnMatrix columns;
+
+  ConstraintMatrix(final int numberOfColumns, final int[] rowStart, final int[] colIndex,
+      final double[] value, final double[] rhs, final byte[] sense) {
+    if (rowStart.length != rhs.length + 1 || rhs.length != sense.length) {
+      throw new InputException("Inconsistent number of rows.");
+    }
+    if (colIndex.length != value.length || rowStart[rhs.length] != value.length) {
+      throw new InputException("Inconsistent number of nonzeros.");
+    }
+    this.numberOfColumns = numberOfColumns;
+    this.rowStart = rowStart;
+    this.colIndex = colIndex;
+    this.value = value;
+    this.rhs = rhs;
+    this.sense = sense;
+  }
+
+  public static ConstraintMatrix empty() {
+    return new ConstraintMatrix(0, new int[1], new int[0], new double[0], new double[0], new byte[0]);
+  }
+
+  public int getNumberOfRows() {
+    return rhs.length;
+  }
+
+  public int getNumberOfColumns() {
+    return numberOfColumns;
+  }
+
+  public int getNumberOfNonzeros() {
+    return value.length;
+  }
+
+  public int[] rowStart() {
+    return rowStart;
+  }
+
+  public int[] colIndex() {
+    return colIndex;
+  }
+
+  public double[] value() {
+    return value;
+  }
+
+  public double[] rhs() {
+    return rhs;
+  }
+
+  public byte[] sense() {
+    return sense;
+  }
+
+  public ConstraintSense getSense(final int row) {
+    return ConstraintSense.values()[sense[row]];
+  }
+
+  /**
+   * Returns the matrix in compressed sparse column format. The column-wise copy is built on the
+   * first call and cached afterwards.
+   */
+  public ColumnMatrix getColumnMatrix() {
+    var result = columns;
+    if (result == null) {
+      synchronized (this) {
+        result = columns;
+        if (result == null) {
+          result = ColumnMatrix.transpose(this);
+          columns = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Builds a constraint matrix row by row. Coefficients of a variable occurring several times
+   * within a row are summed up in place.
+   */
+  public static final class ConstraintMatrixBuilder {
+
+    private final IntArrayList rowStart = IntArrayList.newListWith(0);
+    private final IntArrayList colIndex = new IntArrayList();
+    private final DoubleArrayList value = new DoubleArrayList();
+    private final DoubleArrayList rhs = new DoubleArrayList();
+    private final ByteArrayList sense = new ByteArrayList();
+    // per column: the row it last occurred in and its position within colIndex
+    private int[] lastRow = new int[0];
+    private int[] position = new int[0];
+
+    /** Adds the given coefficient to the current row. */
+    public ConstraintMatrixBuilder addCoefficient(final int column, final double coefficient) {
+      if (column >= lastRow.length) {
+        final int length = Math.max(column + 1, 2 * lastRow.length);
+        final int oldLength = lastRow.length;
+        lastRow = Arrays.copyOf(lastRow, length);
+        Arrays.fill(lastRow, oldLength, length, -1);
+        position = Arrays.copyOf(position, length);
+      }
+      final int row = rhs.size();
+      if (lastRow[column] == row) {
+        final int pos = position[column];
+        value.set(pos, value.get(pos) + coefficient);
+      } else {
+        lastRow[column] = row;
+        position[column] = colIndex.size();
+        colIndex.add(column);
+        value.add(coefficient);
+      }
+      return this;
+    }
+
+    /** Returns the number of coefficients of the current row. */
+    public int getCurrentRowLength() {
+      return colIndex.size() - rowStart.getLast();
+    }
+
+    /** Completes the current row. */
+    public ConstraintMatrixBuilder endRow(final ConstraintSense rowSense, final double rowRhs) {
+      rowStart.add(colIndex.size());
+      rhs.add(rowRhs);
+      sense.add((byte) rowSense.ordinal());
+      return this;
+    }
+
+    public ConstraintMatrix build(final int numberOfColumns) {
+      return new ConstraintMatrix(numberOfColumns, rowStart.toArray(), colIndex.toArray(),
+          value.toArray(), rhs.toArray(), sense.toArray());
+    }
+
+    /**
+     * Builds the matrix holding the rows of the given builders one after another. The column
+     * indices of builder k are renumbered by columnMaps[k]; the builders are copied in parallel.
+     */
+    static ConstraintMatrix concat(final List<ConstraintMatrixBuilder> parts,
+        final List<int[]> columnMaps, final int numberOfColumns) {
+      final int[] rowOffset = new int[parts.size() + 1];
+      final int[] nonzeroOffset = new int[parts.size() + 1];
+      for (int k = 0; k < parts.size(); ++k) {
+        rowOffset[k + 1] = rowOffset[k] + parts.get(k).rhs.size();
+        nonzeroOffset[k + 1] = nonzeroOffset[k] + parts.get(k).colIndex.size();
+      }
+      final int rows = rowOffset[parts.size()];
+      final int nonzeros = nonzeroOffset[parts.size()];
+      final int[] rowStart = new int[rows + 1];
+      final int[] colIndex = new int[nonzeros];
+      final double[] value = new double[nonzeros];
+      final double[] rhs = new double[rows];
+      final byte[] sense = new byte[rows];
+      IntStream.range(0, parts.size()).parallel().forEach(k -> {
+        final var part = parts.get(k);
+        final int[] columnMap = columnMaps.get(k);
+        for (int r = 0; r < part.rhs.size(); ++r) {
+          rowStart[rowOffset[k] + r + 1] = nonzeroOffset[k] + part.rowStart.get(r + 1);
+          rhs[rowOffset[k] + r] = part.rhs.get(r);
+          sense[rowOffset[k] + r] = part.sense.get(r);
+        }
+        for (int i = 0; i < part.colIndex.size(); ++i) {
+          colIndex[nonzeroOffset[k] + i] = columnMap[part.colIndex.get(i)];
+          value[nonzeroOffset[k] + i] = part.value.get(i);
+        }
+      });
+      return new ConstraintMatrix(numberOfColumns, rowStart, colIndex, value, rhs, sense);
+    }
+  }
+}
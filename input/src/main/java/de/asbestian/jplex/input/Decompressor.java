@@ -0,0 +1,25 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes a compressed input format, recognised by its leading magic bytes. Gzip is supported out
+ * of the box; further formats are registered as services via {@link java.util.ServiceLoader}.
+ *
+ * @author Sebastian Schenker
+ */
+public interface Decompressor {
+
+  /** The number of leading bytes passed to {@link #matches(byte[], int)}. */
+  int MAGIC_LENGTH = 4;
+
+  /**
+   * Returns whether an input starting with the given bytes is compressed in this format. Fewer than
+   * {@link #MAGIC_LENGTH} bytes are given if the input is shorter.
+   */
+  boolean matches(byte[] head, int length);
+
+  /** Returns a stream of the decompressed bytes of the given compressed stream. */
+  InputStream decode(InputStream compressed) throws IOException;
+}
@@ -0,0 +1,27 @@
+package de.asbestian.jplex.input;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+
+/**
+ * The known {@link Decompressor}s: gzip followed by those registered as services.
+ *
+ * @author Sebastian Schenker
+ */
+final class Decompressors {
+
+  private static final ImmutableList<Decompressor> ALL = Lists.mutable.<Decompressor>of(
+          new GzipDecompressor())
+      .withAll(ServiceLoader.load(Decompressor.class))
+      .toImmutable();
+
+  private Decompressors() {}
+
+  /** Returns the decompressor of an input starting with the given bytes, if it is compressed. */
+  static Optional<Decompressor> detect(final byte[] head, final int length) {
+    return Optional.ofNullable(ALL.detectWith((decompressor, h) -> decompressor.matches(h, length),
+        head));
+  }
+}
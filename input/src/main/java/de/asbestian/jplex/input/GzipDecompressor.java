@@ -0,0 +1,25 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decodes gzip inputs with the codec of the JDK.
+ *
+ * @author Sebastian Schenker
+ */
+final class GzipDecompressor implements Decompressor {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  @Override
+  public boolean matches(final byte[] head, final int length) {
+    return length >= 2 && head[0] == (byte) 0x1f && head[1] == (byte) 0x8b;
+  }
+
+  @Override
+  public InputStream decode(final InputStream compressed) throws IOException {
+    return new GZIPInputStream(compressed, BUFFER_SIZE);
+  }
+}
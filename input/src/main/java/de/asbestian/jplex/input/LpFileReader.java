@@ -2,27 +2,29 @@ package de.asbestian.jplex.input;
 
 import de.asbestian.jplex.input.Constraint.ConstraintBuilder;
 import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.ConstraintMatrix.ConstraintMatrixBuilder;
+import de.asbestian.jplex.input.LpParser.Section;
+import de.asbestian.jplex.input.ModelProfile.ModelProfileBuilder;
 import de.asbestian.jplex.input.Objective.ObjectiveBuilder;
 import de.asbestian.jplex.input.Objective.ObjectiveSense;
-import de.asbestian.jplex.input.Variable.VariableBuilder;
+import de.asbestian.jplex.input.ParseStatistics.ParseStatisticsBuilder;
 import de.asbestian.jplex.input.Variable.VariableType;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import de.asbestian.jplex.input.VariableStore.VariableStoreBuilder;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.StringTokenizer;
-import java.util.function.BiFunction;
-import java.util.function.BiPredicate;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import org.eclipse.collections.api.factory.Lists;
-import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.ImmutableMap;
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.impl.map.mutable.UnifiedMap;
+import org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,90 +35,258 @@ import org.slf4j.LoggerFactory;
 public class LpFileReader {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LpFileReader.class);
+  private static final long MIN_BLOCK_SIZE = 1 << 20;
+  private static final LpListener NO_LISTENER = new LpListener() {};
+
+  // builds the model from the contents reported by the parser, passing them on to next
+  private static final class ModelBuilder implements LpListener {
+    private final SymbolTable symbols;
+    private final LpListener next;
+    private final MutableList<ObjectiveBuilder> objectiveBuilders = Lists.mutable.empty();
+    private boolean inObjective = false;
+    private final ConstraintMatrixBuilder matrixBuilder = new ConstraintMatrixBuilder();
+    private final MutableList<String> constraintNames = Lists.mutable.empty();
+    private final IntArrayList constraintLineNumbers = new IntArrayList();
+    private final VariableStoreBuilder variableBuilder = new VariableStoreBuilder();
+
+    ModelBuilder(final SymbolTable symbols) {
+      this(symbols, NO_LISTENER);
+    }
 
-  private enum Section {
-    START(Lists.immutable.empty()),
-    OBJECTIVE(Lists.immutable.empty()),
-    CONSTRAINTS(Lists.immutable.of("subject to", "such that", "s.t.", "st.", "st")),
-    BOUNDS(Lists.immutable.of("bounds", "bound")),
-    BINARY(Lists.immutable.of("binary", "binaries", "bin")),
-    GENERAL(Lists.immutable.of("generals", "general", "gen")),
-    END(Lists.immutable.of("end"));
-
-    Stream<String> rep() {
-      return representation.stream();
+    ModelBuilder(final SymbolTable symbols, final LpListener next) {
+      this.symbols = symbols;
+      this.next = next;
     }
 
-    Section(final ImmutableList<String> values) {
-      representation = values;
+    @Override
+    public void variable(final int index, final String name) {
+      variableBuilder.add();
+      next.variable(index, name);
     }
 
-    private final ImmutableList<String> representation;
-  }
+    @Override
+    public void objectiveStart(final String name, final ObjectiveSense sense) {
+      objectiveBuilders.add(new ObjectiveBuilder().setSense(sense).setName(name));
+      inObjective = true;
+      next.objectiveStart(name, sense);
+    }
 
-  private static final BiPredicate<String, Section> sectionReached = (line, section) -> section.rep().anyMatch(line::equalsIgnoreCase);
+    @Override
+    public void objectiveEnd() {
+      inObjective = false;
+      next.objectiveEnd();
+    }
 
-  private static final BiPredicate<String, List<Section>> notReached = (line, list) -> list.stream().noneMatch(sec -> sectionReached.test(line, sec));
+    @Override
+    public void constraintStart(final String name, final int lineNumber) {
+      constraintNames.add(name);
+      constraintLineNumbers.add(lineNumber);
+      next.constraintStart(name, lineNumber);
+    }
 
-  private static final BiFunction<String, List<Section>, Section> getSection = (line, allowed) -> allowed.stream().filter(sec -> sectionReached.test(line, sec)).findFirst()
-      .orElseThrow(() -> new InputException(String.format("No section found. Expected sections: %s", allowed)));
+    @Override
+    public void addend(final int variable, final double coefficient) {
+      if (inObjective) {
+        objectiveBuilders.getLast().addCoefficient(symbols.name(variable), coefficient);
+      } else {
+        matrixBuilder.addCoefficient(variable, coefficient);
+      }
+      next.addend(variable, coefficient);
+    }
 
-  private void ensureSection(final Section expected) {
-    if (currentSection != expected) {
-      throw new InputException(String.format("Expected %s, found %s.", expected, currentSection));
+    @Override
+    public void constraintEnd(final ConstraintSense sense, final double rhs) {
+      matrixBuilder.endRow(sense, rhs);
+      next.constraintEnd(sense, rhs);
     }
-  }
 
-  private enum Sign {
-    MINUS(-1),
-    PLUS(1),
-    UNDEF(0);
+    @Override
+    public void bound(final int variable, final ConstraintSense sense, final double value) {
+      switch (sense) {
+        case LE -> variableBuilder.setUb(variable, value);
+        case GE -> variableBuilder.setLb(variable, value);
+        case EQ -> {
+          variableBuilder.setLb(variable, value);
+          variableBuilder.setUb(variable, value);
+        }
+      }
+      next.bound(variable, sense, value);
+    }
 
-    Sign(final int value) {
-      this.value = value;
+    @Override
+    public void variableType(final int variable, final VariableType type) {
+      variableBuilder.setType(variable, type);
+      next.variableType(variable, type);
     }
 
-    final int value;
+    @Override
+    public void end() {
+      next.end();
+    }
   }
 
-  private sealed interface ParsedConstraintLine permits Unit, Pair, Triple {}
-  private static record Unit(String line) implements ParsedConstraintLine {}
-  private static record Pair(ConstraintSense sense, Double rhs) implements ParsedConstraintLine {}
-  private static record Triple(String line, ConstraintSense sense, Double rhs) implements
-      ParsedConstraintLine {}
+  // bounds of a chunk of the bounds section, to be replayed in file order
+  private static final class BoundLog implements LpListener {
+    private final IntArrayList variables = new IntArrayList();
+    private final ByteArrayList senses = new ByteArrayList();
+    private final DoubleArrayList bounds = new DoubleArrayList();
+
+    @Override
+    public void bound(final int variable, final ConstraintSense sense, final double value) {
+      variables.add(variable);
+      senses.add((byte) sense.ordinal());
+      bounds.add(value);
+    }
+
+    void replayTo(final LpListener listener) {
+      final var values = ConstraintSense.values();
+      for (int i = 0; i < variables.size(); ++i) {
+        listener.bound(variables.get(i), values[senses.get(i)], bounds.get(i));
+      }
+    }
+  }
 
-  private static final String PATTERN =
-      "[a-zA-Z\\!\"#\\$%&\\(\\)/,;\\?`'\\{\\}\\|~_][a-zA-Z0-9\\!\"#\\$%&\\(\\)/,\\.;\\?`'\\{\\}\\|~_]*";
+  // result of parsing a chunk in parallel; error is null on success
+  private static record ConstraintChunk(LpParser parser, ModelBuilder model, Exception error) {}
+  private static record BoundChunk(BoundLog log, Exception error) {}
 
   private ImmutableList<Objective> objectives;
-  private ImmutableList<Constraint> constraints;
-  private ImmutableMap<String, Variable> variables;
-  private Section currentSection;
-  private int currentLineNumber;
+  private ConstraintMatrix constraints;
+  private ImmutableList<String> constraintNames;
+  private int[] constraintLineNumbers;
+  private VariableStore variables;
+  private SymbolTable symbols;
+  private Exception failure = null;
+  private ParseStatistics statistics = ParseStatistics.empty();
+  private ModelProfile profile = null;
 
+  /**
+   * Reads the given file. The file is mapped into memory and tokenized on the level of ASCII
+   * bytes.
+   */
   public LpFileReader(final String path) {
-    currentSection = Section.START;
-    currentLineNumber = 0;
-    final MutableMap<String, VariableBuilder> variableBuilders = new UnifiedMap<>();
-    try (final BufferedReader bf = new BufferedReader(new FileReader(path))) {
-      final var objectiveSense = readObjectiveSense(bf);
-      objectives = readObjectives(bf, variableBuilders, objectiveSense);
-      constraints = readConstraints(bf, variableBuilders);
-      while(currentSection != Section.END) {
-        switch (currentSection) {
-          case BOUNDS -> readBounds(bf, variableBuilders);
-          case BINARY -> readBinary(bf, variableBuilders);
-          case GENERAL -> readGeneral(bf, variableBuilders);
-          default -> throw new InputException(String.format("Unexpected section: %s", currentSection));
-        }
+    this(path, 1);
+  }
+
+  /**
+   * Reads the given file. In parallel mode, the constraints and bounds sections are split into
+   * chunks which are parsed on the common fork join pool and merged in file order. The result,
+   * including variable indices and the line numbers of reported errors, is the same as in
+   * sequential mode.
+   */
+  public LpFileReader(final String path, final boolean parallel) {
+    this(LpSource.of(Path.of(path)), parallel);
+  }
+
+  /** Reads the given source; see {@link LpSource} for how each kind of source is read. */
+  public LpFileReader(final LpSource source) {
+    this(source, 1);
+  }
+
+  /**
+   * Reads the given source. Parallel mode applies to files only; see
+   * {@link #LpFileReader(String, boolean)}.
+   */
+  public LpFileReader(final LpSource source, final boolean parallel) {
+    this(source, parallel ? parallelBlocks(source) : 1);
+  }
+
+  /**
+   * Reads the given source as {@link #LpFileReader(LpSource, boolean)} does and, if profile is
+   * set, collects its {@link ModelProfile} in the same pass; see {@link #getProfile()}.
+   */
+  public LpFileReader(final LpSource source, final boolean parallel, final boolean profile) {
+    this(source, parallel ? parallelBlocks(source) : 1, profile ? new ModelProfileBuilder() : null);
+  }
+
+  LpFileReader(final String path, final int blocks) {
+    this(LpSource.of(Path.of(path)), blocks);
+  }
+
+  LpFileReader(final LpSource source, final int blocks) {
+    this(source, blocks, null);
+  }
+
+  /**
+   * Reads the given source, splitting the part following the objective section into the given
+   * number of blocks for a parallel prescan; a single block means a sequential parse. The
+   * contents are passed on to the given profile builder, if any, in file order.
+   */
+  LpFileReader(final LpSource source, final int blocks, final ModelProfileBuilder profileBuilder) {
+    symbols = new SymbolTable();
+    final var model = profileBuilder == null
+        ? new ModelBuilder(symbols)
+        : new ModelBuilder(symbols, profileBuilder);
+    final var statistics = new ParseStatisticsBuilder();
+    final long allocated = ParseStatistics.currentThreadAllocatedBytes();
+    final var parser = new LpParser(symbols, model, statistics);
+    try (final LpLexer lexer = new LpLexer(source.open())) {
+      parser.readObjectives(lexer);
+      final var path = source.path();
+      final var layout = blocks > 1 && path.isPresent()
+          ? LpPrescan.scan(path.get(), lexer.position(), lexer.lineNumber(), blocks)
+          : Optional.<LpPrescan>empty();
+      if (layout.isPresent()) {
+        LOGGER.debug("Parsing {} constraint chunks and {} bound chunks in parallel.",
+            layout.get().constraintChunks().size(), layout.get().boundChunks().size());
+        statistics.setBytes(readInParallel(path.get(), layout.get(), parser, model, statistics));
+      } else {
+        parser.readConstraints(lexer);
+        constraints = model.matrixBuilder.build(symbols.size());
+        constraintNames = model.constraintNames.toImmutable();
+        constraintLineNumbers = model.constraintLineNumbers.toArray();
+        parser.readRemainingSections(lexer);
+        statistics.setBytes(lexer.position());
+      }
+      objectives = model.objectiveBuilders.collect(ObjectiveBuilder::build).toImmutable();
+      variables = model.variableBuilder.build();
+      if (profileBuilder != null) {
+        profile = profileBuilder.build();
       }
-      variables = variableBuilders.collectValues((key, value) -> value.build()).toImmutable();
     } catch (final IOException | InputException e) {
-      LOGGER.error("Problem reading section {} in input file {}", currentSection, path);
+      LOGGER.error("Problem reading section {} in input {}", parser.currentSection(), source);
       LOGGER.error(e.getMessage());
+      parser.dumpTrace();
       objectives = Lists.immutable.empty();
-      constraints = Lists.immutable.empty();
-      variables = Maps.immutable.empty();
+      constraints = ConstraintMatrix.empty();
+      constraintNames = Lists.immutable.empty();
+      constraintLineNumbers = new int[0];
+      variables = VariableStore.empty();
+      symbols = new SymbolTable();
+      profile = null;
+      failure = e;
+    } finally {
+      statistics.leave(parser.lineNumber());
+      statistics.setLines(parser.lineNumber()).setNames(parser.symbols().size())
+          .addAddends(parser.addends());
+      if (allocated >= 0) {
+        statistics.addAllocated(ParseStatistics.currentThreadAllocatedBytes() - allocated);
+      }
+      this.statistics = statistics.build();
+    }
+  }
+
+  // model loaded from elsewhere, e.g. a snapshot
+  LpFileReader(final ImmutableList<Objective> objectives, final ConstraintMatrix constraints,
+      final ImmutableList<String> constraintNames, final int[] constraintLineNumbers,
+      final VariableStore variables, final SymbolTable symbols) {
+    this.objectives = objectives;
+    this.constraints = constraints;
+    this.constraintNames = constraintNames;
+    this.constraintLineNumbers = constraintLineNumbers;
+    this.variables = variables;
+    this.symbols = symbols;
+  }
+
+  private static int parallelBlocks(final LpSource source) {
+    if (source.path().isEmpty()) {
+      return 1;
+    }
+    try {
+      final long blocks = Files.size(source.path().get()) / MIN_BLOCK_SIZE;
+      return (int) Math.max(1, Math.min(blocks, 4L * ForkJoinPool.getCommonPoolParallelism()));
+    } catch (final IOException e) {
+      return 1; // reported when reading the file
     }
   }
 
@@ -130,363 +300,241 @@ public class LpFileReader {
     return variables.size();
   }
 
-  public int getNumberOfConstraints() {
-    return constraints.size();
+  /** Returns the variable with the given index; see {@link #getSymbolTable()}. */
+  public Variable getVariable(final int index) {
+    return new Variable(symbols.name(index), variables.getType(index), variables.lb()[index],
+        variables.ub()[index]);
   }
 
-  public List<Variable> getContinuousVariables() { return getVariablesWithType(VariableType.CONTINUOUS); }
+  /** Returns the bounds and types of all variables in column-wise form. */
+  public VariableStore getVariableStore() {
+    return variables;
+  }
 
-  public List<Variable> getIntegerVariables() { return getVariablesWithType(VariableType.INTEGER); }
+  /**
+   * Returns the table assigning each variable name its index. Indices are given in order of first
+   * appearance within the input.
+   */
+  public SymbolTable getSymbolTable() {
+    return symbols;
+  }
 
-  public List<Variable> getBinaryVariables() { return getVariablesWithType(VariableType.BINARY); }
+  public int getNumberOfConstraints() {
+    return constraints.getNumberOfRows();
+  }
 
-  private List<Variable> getVariablesWithType(final VariableType type) {
-    return variables.select(var -> var.type().equals(type)).stream().toList();
-  }
-
-  private ObjectiveSense readObjectiveSense(final BufferedReader bufferedReader) throws IOException, InputException {
-    ensureSection(Section.START);
-    final var line = getNextProperLine(bufferedReader);
-    final var isMax = ObjectiveSense.MAX.rep().anyMatch(line::equalsIgnoreCase);
-    final var isMin = ObjectiveSense.MIN.rep().anyMatch(line::equalsIgnoreCase);
-    if (isMax || isMin) {
-      currentSection = Section.OBJECTIVE;
-      LOGGER.debug("Switching to section {}.", currentSection);
-      if (isMax) {
-        LOGGER.debug("Found maximisation direction.");
-        return ObjectiveSense.MAX;
-      } else {
-        LOGGER.debug("Found minimisation direction.");
-        return ObjectiveSense.MIN;
-      }
-    }
-    else {
-      throw new InputException(
-          String.format("Line %d: unrecognised optimisation direction %s.", currentLineNumber, line));
+  /**
+   * Returns the constraint with the given index. The constraint is assembled from the constraint
+   * matrix on each call; use {@link #getConstraintMatrix()} for bulk access.
+   */
+  public Constraint getConstraint(final int index) {
+    final var builder = new ConstraintBuilder();
+    final int[] colIndex = constraints.colIndex();
+    final double[] value = constraints.value();
+    for (int i = constraints.rowStart()[index]; i < constraints.rowStart()[index + 1]; ++i) {
+      builder.addCoefficient(symbols.name(colIndex[i]), value[i]);
     }
+    return builder
+        .setName(constraintNames.get(index))
+        .setLineNumber(constraintLineNumbers[index])
+        .setSense(constraints.getSense(index))
+        .setRhs(constraints.rhs()[index])
+        .build();
   }
 
-  private ImmutableList<Objective> readObjectives(
-      final BufferedReader bufferedReader,
-      final MutableMap<String, VariableBuilder> variableBuilders,
-      final ObjectiveSense objectiveSense)
-      throws IOException, InputException {
-    ensureSection(Section.OBJECTIVE);
-    final MutableList<ObjectiveBuilder> builders = Lists.mutable.empty();
-    String line = getNextProperLine(bufferedReader);
-    while(!sectionReached.test(line, Section.CONSTRAINTS)) {
-      final int colonIndex = line.indexOf(':');
-      if (colonIndex != -1) { // objective function name found; add new builder
-        final var name = getName(line, 0, colonIndex, currentLineNumber);
-        LOGGER.trace("Found objective name: {}.", name);
-        final var builder = new ObjectiveBuilder().setSense(objectiveSense).setName(name);
-        builders.add(builder);
-        line = line.substring(colonIndex + 1).trim();
-      }
-      LOGGER.trace("Parsing line {}: {}", currentLineNumber, line);
-      final var linComb = parseLinComb(variableBuilders, line, currentLineNumber);
-      builders.getLast().mergeCoefficients(linComb);
-      line = getNextProperLine(bufferedReader);
-    }
-    currentSection = Section.CONSTRAINTS;
-    LOGGER.debug("Switching to section {}.", currentSection);
-    return builders.collect(ObjectiveBuilder::build).toImmutable();
-  }
-
-  ImmutableList<Constraint> readConstraints(
-      final BufferedReader bufferedReader,
-      final MutableMap<String, VariableBuilder> variableBuilders)
-      throws IOException, InputException {
-    ensureSection(Section.CONSTRAINTS);
-    final MutableList<Constraint> constraints = Lists.mutable.empty();
-    ConstraintBuilder consBuilder = null;
-    final var sections = List.of(Section.BOUNDS, Section.BINARY, Section.GENERAL, Section.END);
-    var line = getNextProperLine(bufferedReader);
-    while (notReached.test(line, sections)) {
-      final int colonIndex = line.indexOf(':');
-      if (colonIndex != -1) { // constraint name found
-        final var name = getName(line, 0, colonIndex, currentLineNumber);
-        LOGGER.trace("Found constraint name: {}.", name);
-        consBuilder = new ConstraintBuilder().setName(name).setLineNumber(currentLineNumber);
-        line = line.substring(colonIndex + 1).trim();
-      }
-      LOGGER.trace("Parsing line {}: {}", currentLineNumber, line);
-      final var result = parseConstraintLine(line, variableBuilders);
-      if (consBuilder == null) {
-        throw new InputException("Constraint builder is null.");
-      }
-      switch (result) {
-        case Unit unit -> {
-          final var lhs = parseLinComb(variableBuilders, unit.line(), currentLineNumber);
-          consBuilder.mergeCoefficients(lhs);
-        }
-        case Pair pair -> {
-          consBuilder.setSense(pair.sense);
-          consBuilder.setRhs(pair.rhs);
-          constraints.add(consBuilder.build());
-          consBuilder = null;
-        }
-        case Triple triple -> {
-          final var lhs = parseLinComb(variableBuilders, triple.line(), currentLineNumber);
-          consBuilder.mergeCoefficients(lhs);
-          consBuilder.setSense(triple.sense);
-          consBuilder.setRhs(triple.rhs);
-          constraints.add(consBuilder.build());
-          consBuilder = null;
-        }
-      }
-      line = getNextProperLine(bufferedReader);
-    }
-    currentSection = getSection.apply(line, sections);
-    LOGGER.debug("Switching to section {}.", currentSection);
-    return constraints.toImmutable();
-}
+  /** Returns whether reading the input failed, leaving an empty model. */
+  public boolean hasFailed() {
+    return failure != null;
+  }
 
-  private void readBounds(final BufferedReader bufferedReader,
-      final MutableMap<String, VariableBuilder> variableBuilders) throws IOException, InputException {
-    ensureSection(Section.BOUNDS);
-    final var sections = List.of(Section.BINARY, Section.GENERAL, Section.END);
-    var line = getNextProperLine(bufferedReader);
-    while (notReached.test(line, sections)) {
-      LOGGER.trace("Parsing line {}: {}", currentLineNumber, line);
-      parseBound(line, variableBuilders);
-      line = getNextProperLine(bufferedReader);
-    }
-    currentSection = getSection.apply(line, sections);
-    LOGGER.debug("Switching to section {}.", currentSection);
-  }
-
-  private void readType(final BufferedReader bufferedReader, final MutableMap<String, VariableBuilder> variableBuilders,
-      final Section expected, final List<Section> allowed, final VariableType type) throws IOException {
-    ensureSection(expected);
-    var line = getNextProperLine(bufferedReader);
-    while(notReached.test(line, allowed)) {
-      final var names = line.split("\\s");
-      for (final var name : names) {
-        variableBuilders.get(name).setType(type);
-      }
-      line = getNextProperLine(bufferedReader);
-    }
-    currentSection = getSection.apply(line, allowed);
-    LOGGER.debug("Switching to section {}.", currentSection);
+  /** Returns how the input was parsed; see {@link ParseStatistics}. */
+  public ParseStatistics getStatistics() {
+    return statistics;
   }
 
+  /**
+   * Returns the profile of the model if it was requested, see
+   * {@link #LpFileReader(LpSource, boolean, boolean)}, and reading the input did not fail.
+   */
+  public Optional<ModelProfile> getProfile() {
+    return Optional.ofNullable(profile);
+  }
 
-  private void readBinary(final BufferedReader bufferedReader,
-      final MutableMap<String, VariableBuilder> variableBuilders) throws IOException {
-    readType(bufferedReader, variableBuilders, Section.BINARY, List.of(Section.GENERAL, Section.END), VariableType.BINARY);
+  /** Returns the problem which made reading the input fail, if it did. */
+  public Optional<Exception> getFailure() {
+    return Optional.ofNullable(failure);
   }
 
-  private void readGeneral(final BufferedReader bufferedReader,
-      final MutableMap<String, VariableBuilder> variableBuilders) throws IOException {
-    readType(bufferedReader, variableBuilders, Section.GENERAL, List.of(Section.BINARY, Section.END), VariableType.INTEGER);
+  ImmutableList<String> getConstraintNames() {
+    return constraintNames;
   }
 
-  private static double parseValue(final String expr, final int currentLine) {
-    if (Stream.of("inf", "+inf", "infinity", "+infinity").anyMatch(expr::equalsIgnoreCase)) {
-      return Double.POSITIVE_INFINITY;
-    }
-    else if (Stream.of("-inf", "-infinity").anyMatch(expr::equalsIgnoreCase)) {
-      return Double.NEGATIVE_INFINITY;
-    }
-    else {
-      final double bound;
-      try {
-        bound = Double.parseDouble(expr);
+  int[] getConstraintLineNumbers() {
+    return constraintLineNumbers;
+  }
+
+  /** Returns the constraint matrix in compressed sparse row format. */
+  public ConstraintMatrix getConstraintMatrix() {
+    return constraints;
+  }
+
+  public List<Variable> getContinuousVariables() { return getVariablesWithType(VariableType.CONTINUOUS); }
+
+  public List<Variable> getIntegerVariables() { return getVariablesWithType(VariableType.INTEGER); }
+
+  public List<Variable> getBinaryVariables() { return getVariablesWithType(VariableType.BINARY); }
+
+  private List<Variable> getVariablesWithType(final VariableType type) {
+    final int[] indices = variables.indicesOf(type);
+    return new AbstractList<>() {
+      @Override
+      public Variable get(final int index) {
+        return getVariable(indices[index]);
       }
-      catch (final NumberFormatException e) {
-        throw new InputException(String.format("Line %d: %s is not a valid number.", currentLine, expr));
+
+      @Override
+      public int size() {
+        return indices.length;
       }
-      return bound;
-    }
+    };
   }
 
-  // throws if not found
-  private static VariableBuilder getVariableBuilder(final String name, final MutableMap<String, VariableBuilder> variableBuilders, final int currentLine) {
-    final var variable = variableBuilders.get(name);
-    if (variable == null) {
-      throw new InputException(String.format("Line %d: unknown variable name %s", currentLine, name));
+  /**
+   * Reads the constraints and bounds sections chunk by chunk in parallel and the remaining sections
+   * sequentially. Chunks are merged in file order: variables are numbered by their first
+   * appearance, bounds are applied in order of appearance, and the error reported is the one a
+   * sequential parse would encounter first. The constraints are passed on to the listener of the
+   * model once merged, with duplicate coefficients within a row summed up.
+   */
+  private long readInParallel(final Path path, final LpPrescan layout, final LpParser parser,
+      final ModelBuilder model, final ParseStatisticsBuilder statistics) throws IOException {
+    readConstraintsInParallel(path, layout.constraintChunks(), model, statistics);
+    if (!layout.boundChunks().isEmpty()) {
+      parser.setSection(Section.BOUNDS);
+      readBoundsInParallel(path, layout.boundChunks(), model, statistics);
     }
-    return variable;
-  }
-
-  private void parseBound(final String line, final MutableMap<String, VariableBuilder> variableBuilders) {
-    var tokens = line.split("<=");
-    switch (tokens.length) {
-      case 1 -> { // var = bound || var free
-        tokens = line.split("=");
-        if (tokens.length > 1) {
-          LOGGER.trace("Parsing equality bound.");
-          final var variable = getVariableBuilder(tokens[0].trim(), variableBuilders,
-              currentLineNumber);
-          final var bound = parseValue(tokens[1].trim(), currentLineNumber);
-          variable.setLb(bound);
-          variable.setUb(bound);
-        } else {
-          tokens = line.split("\s"); // split by whitespace character
-          if (tokens.length != 2 || !tokens[1].equalsIgnoreCase("free")) {
-            throw new InputException(String.format("Line %d: expected free variable expression, found %s.",
-                currentLineNumber, line));
-          }
-          final var variable = getVariableBuilder(tokens[0].trim(), variableBuilders,
-              currentLineNumber);
-          LOGGER.trace("Parsing free variable {}.", tokens[0].trim());
-          variable.setLb(Double.NEGATIVE_INFINITY);
-          variable.setUb(Double.POSITIVE_INFINITY);
-        }
-      }
-      case 2 -> { // var <= bound || bound <= var
-        var variable = variableBuilders.get(tokens[0].trim());
-        if (variable == null) {
-          LOGGER.trace("Parsing one-sided lower bound.");
-          variable = getVariableBuilder(tokens[1].trim(), variableBuilders, currentLineNumber);
-          final var bound = parseValue(tokens[0].trim(), currentLineNumber);
-          variable.setLb(bound);
-        }
-        else {
-          LOGGER.trace("Parsing one-sided upper bound.");
-          final var bound = parseValue(tokens[1].trim(), currentLineNumber);
-          variable.setUb(bound);
-        }
-      }
-      case 3 -> { // lb <= var <= ub
-        final var variable = getVariableBuilder(tokens[1].trim(), variableBuilders,
-            currentLineNumber);
-        final var lb = parseValue(tokens[0].trim(), currentLineNumber);
-        final var ub = parseValue(tokens[2].trim(), currentLineNumber);
-        variable.setLb(lb);
-        variable.setUb(ub);
-      }
-      default ->
-        throw new InputException(String.format("Line %d: unknown bound format %s", currentLineNumber, line));
+    try (final LpLexer lexer = layout.tail().lexer(path)) {
+      parser.readRemainingSections(lexer, layout.tailSection());
+      return lexer.position();
     }
   }
 
-   private ParsedConstraintLine parseConstraintLine(final String line, final MutableMap<String, VariableBuilder> variableBuilders) {
-    final var sensePattern = Pattern.compile("[><=]{1,2}");
-    final var senseMatcher = sensePattern.matcher(line);
-    if (senseMatcher.find()) { // lhs sense rhs || sense rhs
-      final var constraintSense = ConstraintSense.from(senseMatcher.group());
-      LOGGER.trace("Found constraint sense: {}", constraintSense.representation);
-      final var tokens = Arrays.stream(line.split(senseMatcher.group()))
-          .filter(s -> !s.isBlank()).toList();
-      if (tokens.size() == 1) { // sense rhs
-        final var rhs = parseValue(tokens.get(0), currentLineNumber);
-        return new Pair(constraintSense, rhs);
-      }
-      else if (tokens.size() == 2) { // lhs sense rhs
-        final var rhs = parseValue(tokens.get(1), currentLineNumber);
-        return new Triple(tokens.get(0), constraintSense, rhs);
+  private void readConstraintsInParallel(final Path path,
+      final ImmutableList<LpPrescan.Chunk> chunks, final ModelBuilder model,
+      final ParseStatisticsBuilder statistics) throws IOException {
+    final List<ConstraintChunk> results = IntStream.range(0, chunks.size()).parallel()
+        .mapToObj(c -> readConstraintChunk(path, chunks.get(c), statistics))
+        .toList();
+    final List<ConstraintMatrixBuilder> builders = new ArrayList<>(results.size());
+    final List<int[]> columnMaps = new ArrayList<>(results.size());
+    final MutableList<String> names = Lists.mutable.empty();
+    final var lineNumbers = new IntArrayList();
+    for (int c = 0; c < results.size(); ++c) {
+      final var result = results.get(c);
+      // each chunk but the first starts with a named constraint
+      if (c > 0 && results.get(c - 1).parser().isInConstraint()) {
+        throw results.get(c - 1).parser().constraintWithoutSense();
       }
-      else {
-        throw new InputException(String.format("Line %d: invalid constraint line %s.",
-            currentLineNumber, line));
+      rethrow(result.error());
+      final var local = result.parser().symbols();
+      final int[] columnMap = new int[local.size()];
+      for (int k = 0; k < columnMap.length; ++k) {
+        columnMap[k] = symbols.intern(local.name(k));
+        if (columnMap[k] == model.variableBuilder.size()) { // first appearance
+          model.variable(columnMap[k], local.name(k));
+        }
       }
+      builders.add(result.model().matrixBuilder);
+      columnMaps.add(columnMap);
+      names.addAll(result.model().constraintNames);
+      lineNumbers.addAll(result.model().constraintLineNumbers);
+    }
+    // the last chunk ends at the header of the following section
+    if (results.get(results.size() - 1).parser().isInConstraint()) {
+      throw results.get(results.size() - 1).parser().constraintWithoutSense();
     }
-    else { // only lhs
-      return new Unit(line.trim());
+    constraintNames = names.toImmutable();
+    constraintLineNumbers = lineNumbers.toArray();
+    constraints = ConstraintMatrixBuilder.concat(builders, columnMaps, symbols.size());
+    if (model.next != NO_LISTENER) {
+      replayConstraints(model.next);
     }
   }
 
-  private static String getName(final String str, final int beginIndex, final int endIndex, final int currentLine) {
-    final String name = str.substring(beginIndex, endIndex).trim();
-    if (!name.matches(PATTERN)) {
-      throw new InputException(String.format("Line %d: invalid name %s.", currentLine, name));
+  private void replayConstraints(final LpListener listener) {
+    final int[] rowStart = constraints.rowStart();
+    final int[] colIndex = constraints.colIndex();
+    final double[] value = constraints.value();
+    final double[] rhs = constraints.rhs();
+    for (int row = 0; row < constraints.getNumberOfRows(); ++row) {
+      listener.constraintStart(constraintNames.get(row), constraintLineNumbers[row]);
+      for (int i = rowStart[row]; i < rowStart[row + 1]; ++i) {
+        listener.addend(colIndex[i], value[i]);
+      }
+      listener.constraintEnd(constraints.getSense(row), rhs[row]);
     }
-    return name;
   }
 
-  /**
-   * Returns the next non-blank line stripped of any white space and comment.
-   */
-  private String getNextProperLine(final BufferedReader reader) throws IOException {
-    String line;
-    do {
-      if (!reader.ready()) {
-        throw new InputException("Buffered reader is not ready.");
-      }
-      line = reader.readLine();
-      ++currentLineNumber;
-      final int commentBegin = line.indexOf('\\');
-      if (commentBegin != -1) {
-        line = line.substring(0, commentBegin);
-      }
-    } while (line.isBlank());
-    return line.strip();
-  }
-
-  private static ImmutableMap<String, Double> parseLinComb(
-      final MutableMap<String, VariableBuilder> variableBuilders,
-      final String expr,
-      final int lineNo)
-      throws InputException {
-    final MutableMap<String, Double> linComb = new UnifiedMap<>();
-    final var exprTokens = new StringTokenizer(expr, "+-", true);
-    var sign = Sign.PLUS;
-    while (exprTokens.hasMoreTokens()) {
-      final String token = exprTokens.nextToken().trim();
-      if (token.isEmpty()) {
-        continue;
-      }
-      if (token.equals("+")) {
-        sign = Sign.PLUS;
-      } else if (token.equals("-")) {
-        sign = Sign.MINUS;
-      } else {
-        if (sign == Sign.UNDEF) {
-          throw new InputException(String.format("line %d: missing sign", lineNo));
-        }
-        LOGGER.trace("Parsing {} {}", sign, token);
-        parseAddend(variableBuilders, token, lineNo, sign, linComb);
-        sign = Sign.UNDEF;
-      }
+  private static ConstraintChunk readConstraintChunk(final Path path, final LpPrescan.Chunk chunk,
+      final ParseStatisticsBuilder statistics) {
+    final long cpu = ParseStatistics.currentThreadCpuTime();
+    final long allocated = ParseStatistics.currentThreadAllocatedBytes();
+    final var symbols = new SymbolTable();
+    final var model = new ModelBuilder(symbols);
+    final var parser = new LpParser(symbols, model);
+    try (final LpLexer lexer = chunk.lexer(path)) {
+      parser.readConstraintLines(lexer);
+      return new ConstraintChunk(parser, model, null);
+    } catch (final IOException | InputException e) {
+      parser.dumpTrace();
+      return new ConstraintChunk(parser, model, e);
+    } finally {
+      statistics.addAddends(parser.addends());
+      addWork(statistics, Section.CONSTRAINTS, cpu, allocated);
     }
-    return linComb.toImmutable();
-  }
-
-  private static void parseAddend(
-      final MutableMap<String, VariableBuilder> variableBuilders,
-      final String expr,
-      final int currentLine,
-      final Sign sign,
-      final MutableMap<String, Double> linComb)
-      throws InputException {
-    final int splitIndex = getSummandSplitIndex(expr);
-    if (splitIndex == -1) {
-      throw new InputException(String.format("Line %d: %s is not a valid addend.", currentLine, expr));
+  }
+
+  private void readBoundsInParallel(final Path path, final ImmutableList<LpPrescan.Chunk> chunks,
+      final ModelBuilder model, final ParseStatisticsBuilder statistics) throws IOException {
+    final List<BoundChunk> results = IntStream.range(0, chunks.size()).parallel()
+        .mapToObj(c -> readBoundChunk(path, chunks.get(c), symbols, statistics))
+        .toList();
+    for (final var result : results) {
+      rethrow(result.error());
+      result.log().replayTo(model);
     }
-    double coeff = 1;
-    if (splitIndex > 0) {
-      final String coeffStr = expr.substring(0, splitIndex).trim();
-      coeff = parseValue(coeffStr, currentLine);
+  }
+
+  private static BoundChunk readBoundChunk(final Path path, final LpPrescan.Chunk chunk,
+      final SymbolTable symbols, final ParseStatisticsBuilder statistics) {
+    final long cpu = ParseStatistics.currentThreadCpuTime();
+    final long allocated = ParseStatistics.currentThreadAllocatedBytes();
+    final var log = new BoundLog();
+    final var parser = new LpParser(symbols, log);
+    try (final LpLexer lexer = chunk.lexer(path)) {
+      parser.readBoundLines(lexer);
+      return new BoundChunk(log, null);
+    } catch (final IOException | InputException e) {
+      parser.dumpTrace();
+      return new BoundChunk(log, e);
+    } finally {
+      addWork(statistics, Section.BOUNDS, cpu, allocated);
     }
-    final String name = getName(expr, splitIndex, expr.length(), currentLine);
-    final var variable = variableBuilders.get(name);
-    if (variable == null) {
-      final var varBuilder = new VariableBuilder().setName(name);
-      variableBuilders.put(name, varBuilder);
+  }
+
+  // adds the work done by the current thread since the given measurements
+  private static void addWork(final ParseStatisticsBuilder statistics, final Section section,
+      final long cpu, final long allocated) {
+    statistics.addWork(section, ParseStatistics.currentThreadCpuTime() - cpu,
+        allocated < 0 ? -1 : ParseStatistics.currentThreadAllocatedBytes() - allocated);
+  }
+
+  private static void rethrow(final Exception error) throws IOException {
+    if (error instanceof IOException e) {
+      throw e;
     }
-    LOGGER.trace("Found {} {}", sign.value * coeff, name);
-    linComb.merge(name, sign.value * coeff, Double::sum);
-  }
-
-  private static int getSummandSplitIndex(final String expr) {
-    boolean inExp = false;
-    for (int i = 0; i < expr.length(); ++i) {
-      final char c = expr.charAt(i);
-      if (!(Character.isDigit(c) || (c == '.'))) {
-        if ((c == 'e') || (c == 'E')) {
-          if (inExp) {
-            return i;
-          } else {
-            inExp = true;
-          }
-        } else {
-          return i;
-        }
-      }
+    if (error instanceof InputException e) {
+      throw e;
     }
-    return -1;
   }
-
 }
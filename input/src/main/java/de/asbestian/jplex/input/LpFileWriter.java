@@ -0,0 +1,276 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes models in lp format. The text is formatted straight into a large byte buffer, which is
+ * handed to the channel whenever it fills up and is reused for all models written by the same
+ * writer; numbers are formatted by {@link NumberFormatter}. As done by Gurobi and CPLEX, long
+ * expressions are wrapped into continuation lines of at most {@value #MAX_LINE_LENGTH}
+ * characters, each starting with a sign. A writer must not be used by several threads at once.
+ *
+ * <p>Reading a written file with {@link LpFileReader} gives the same model, except for the line
+ * numbers of the constraints. Variables are numbered by first appearance when read back, which
+ * keeps the numbering of any model read from an lp file. Variables occurring in neither an
+ * objective nor a constraint cannot be expressed in lp format and are left out. Names must be
+ * valid in lp format, which names taken from MPS files, e.g. with spaces, need not be.
+ *
+ * @author Sebastian Schenker
+ */
+public final class LpFileWriter {
+
+  static final int MAX_LINE_LENGTH = 255;
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final String CONTINUATION = "   ";
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int size = 0;
+  private int lineLength = 0;
+  private WritableByteChannel channel;
+
+  /** Writes the given model to the given file, replacing any previous content. */
+  public void write(final LpFileReader model, final Path path) throws IOException {
+    try (final FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      write(model, file);
+    }
+  }
+
+  /**
+   * Writes the given model to the given channel, which is not closed.
+   *
+   * @throws IllegalArgumentException if the model cannot be expressed in lp format, i.e. if its
+   *     objectives differ in sense, if it holds a coefficient which is not finite or a name which
+   *     is not valid in lp format
+   */
+  public void write(final LpFileReader model, final WritableByteChannel channel)
+      throws IOException {
+    this.channel = channel;
+    size = 0;
+    lineLength = 0;
+    try {
+      final var symbols = model.getSymbolTable();
+      final boolean[] used = new boolean[model.getNumberOfVariables()];
+      writeObjectives(model, used);
+      writeConstraints(model, used);
+      writeBounds(model.getVariableStore(), symbols, used);
+      writeTypes(model.getVariableStore(), symbols, used, VariableType.BINARY, "Binaries");
+      writeTypes(model.getVariableStore(), symbols, used, VariableType.INTEGER, "Generals");
+      append("End").newLine();
+      flush();
+    } finally {
+      this.channel = null;
+    }
+  }
+
+  private void writeObjectives(final LpFileReader model, final boolean[] used) throws IOException {
+    final var sense = model.getNumberOfObjectives() == 0
+        ? ObjectiveSense.MIN
+        : model.getObjective(0).sense();
+    append(sense == ObjectiveSense.MAX ? "Maximize" : "Minimize").newLine();
+    final var symbols = model.getSymbolTable();
+    for (int k = 0; k < model.getNumberOfObjectives(); ++k) {
+      final var objective = model.getObjective(k);
+      if (objective.sense() != sense) {
+        throw new IllegalArgumentException(
+            "Objectives of different senses cannot be written in lp format.");
+      }
+      // by variable index, i.e. by first appearance for models read from lp files
+      final int[] index = new int[objective.coefficients().size()];
+      final double[] value = new double[index.length];
+      final long[] order = new long[index.length];
+      final int[] count = {0};
+      objective.coefficients().forEachKeyValue((name, coefficient) -> {
+        final int i = count[0]++;
+        index[i] = symbols.indexOf(name);
+        value[i] = coefficient;
+        order[i] = (long) index[i] << 32 | i;
+      });
+      Arrays.sort(order);
+      append(' ').append(checkName(objective.name(), "Objective")).append(':');
+      for (int i = 0; i < order.length; ++i) {
+        final int position = (int) order[i];
+        markUsed(used, index[position], symbols);
+        appendAddend(i == 0, value[position], symbols.name(index[position]));
+      }
+      newLine();
+    }
+  }
+
+  private void writeConstraints(final LpFileReader model, final boolean[] used) throws IOException {
+    append("Subject To").newLine();
+    final var symbols = model.getSymbolTable();
+    final var names = model.getConstraintNames();
+    final var matrix = model.getConstraintMatrix();
+    final int[] rowStart = matrix.rowStart();
+    final int[] colIndex = matrix.colIndex();
+    final double[] value = matrix.value();
+    for (int row = 0; row < matrix.getNumberOfRows(); ++row) {
+      append(' ').append(checkName(names.get(row), "Constraint")).append(':');
+      for (int i = rowStart[row]; i < rowStart[row + 1]; ++i) {
+        markUsed(used, colIndex[i], symbols);
+        appendAddend(i == rowStart[row], value[i], symbols.name(colIndex[i]));
+      }
+      wrap(4 + NumberFormatter.MAX_LENGTH);
+      append(' ').append(matrix.getSense(row).representation).append(' ')
+          .append(matrix.rhs()[row]).newLine();
+    }
+  }
+
+  private void writeBounds(final VariableStore variables, final SymbolTable symbols,
+      final boolean[] used) throws IOException {
+    final double[] lb = variables.lb();
+    final double[] ub = variables.ub();
+    boolean header = false;
+    for (int j = 0; j < used.length; ++j) {
+      final boolean defaultLower = Double.doubleToRawLongBits(lb[j]) == 0L;
+      final boolean defaultUpper = variables.getType(j) == VariableType.BINARY
+          ? ub[j] == 1
+          : ub[j] == Double.POSITIVE_INFINITY;
+      if (!used[j] || defaultLower && defaultUpper) {
+        continue;
+      }
+      if (!header) {
+        append("Bounds").newLine();
+        header = true;
+      }
+      final String name = symbols.name(j);
+      ensure(name.length() + 2 * NumberFormatter.MAX_LENGTH + 16);
+      append(' ');
+      if (lb[j] == Double.NEGATIVE_INFINITY && ub[j] == Double.POSITIVE_INFINITY) {
+        append(name).append(" free");
+      } else if (lb[j] == ub[j]) {
+        append(name).append(" = ").append(lb[j]);
+      } else if (ub[j] == Double.POSITIVE_INFINITY) {
+        append(name).append(" >= ").append(lb[j]);
+      } else if (defaultLower) {
+        append(name).append(" <= ").append(ub[j]);
+      } else {
+        append(lb[j]).append(" <= ").append(name).append(" <= ").append(ub[j]);
+      }
+      newLine();
+    }
+  }
+
+  private void writeTypes(final VariableStore variables, final SymbolTable symbols,
+      final boolean[] used, final VariableType type, final String header) throws IOException {
+    final int[] indices = variables.indicesOf(type);
+    boolean written = false;
+    for (final int j : indices) {
+      if (!used[j]) {
+        continue;
+      }
+      if (!written) {
+        append(header).newLine();
+        written = true;
+      }
+      final String name = symbols.name(j);
+      wrap(name.length() + 1);
+      append(' ').append(name);
+    }
+    if (written) {
+      newLine();
+    }
+  }
+
+  // checks the name of each variable once, when it is first written
+  private static void markUsed(final boolean[] used, final int variable, final SymbolTable symbols) {
+    if (!used[variable]) {
+      checkName(symbols.name(variable), "Variable");
+      used[variable] = true;
+    }
+  }
+
+  private static String checkName(final String name, final String kind) {
+    if (!LpLexer.isName(name)) {
+      throw new IllegalArgumentException(
+          String.format("%s name '%s' cannot be written in lp format.", kind, name));
+    }
+    return name;
+  }
+
+  /** Appends the addend, preceded by its sign unless it is the first one and not negative. */
+  private void appendAddend(final boolean first, final double coefficient, final String name)
+      throws IOException {
+    if (!Double.isFinite(coefficient)) {
+      throw new IllegalArgumentException(String.format(
+          "Coefficient %s of %s cannot be written in lp format.", coefficient, name));
+    }
+    final boolean negative = Double.doubleToRawLongBits(coefficient) < 0;
+    final double magnitude = Math.abs(coefficient);
+    wrap(name.length() + 4 + (magnitude == 1 ? 0 : NumberFormatter.MAX_LENGTH));
+    if (negative) {
+      append(" -");
+    } else if (!first || lineLength == CONTINUATION.length()) {
+      append(" +");
+    }
+    append(' ');
+    if (magnitude != 1) {
+      append(magnitude).append(' ');
+    }
+    append(name);
+  }
+
+  // starts a continuation line if the given number of bytes does not fit into the current line
+  private void wrap(final int length) throws IOException {
+    if (lineLength + length > MAX_LINE_LENGTH && lineLength > CONTINUATION.length()) {
+      newLine();
+      append(CONTINUATION);
+    }
+  }
+
+  private LpFileWriter append(final char c) throws IOException {
+    ensure(1);
+    buffer[size++] = (byte) c;
+    ++lineLength;
+    return this;
+  }
+
+  private LpFileWriter append(final String s) throws IOException {
+    ensure(s.length());
+    for (int i = 0; i < s.length(); ++i) {
+      buffer[size++] = (byte) s.charAt(i);
+    }
+    lineLength += s.length();
+    return this;
+  }
+
+  private LpFileWriter append(final double value) throws IOException {
+    ensure(NumberFormatter.MAX_LENGTH);
+    final int end = NumberFormatter.format(value, buffer, size);
+    lineLength += end - size;
+    size = end;
+    return this;
+  }
+
+  private void newLine() throws IOException {
+    ensure(1);
+    buffer[size++] = '\n';
+    lineLength = 0;
+  }
+
+  private void ensure(final int length) throws IOException {
+    if (size + length > buffer.length) {
+      flush();
+      if (length > buffer.length) {
+        throw new IllegalArgumentException("Text exceeds buffer size.");
+      }
+    }
+  }
+
+  private void flush() throws IOException {
+    final var bytes = ByteBuffer.wrap(buffer, 0, size);
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    size = 0;
+  }
+}
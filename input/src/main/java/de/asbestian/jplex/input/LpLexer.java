@@ -0,0 +1,350 @@
+package de.asbestian.jplex.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits ASCII input into lines without decoding it into characters. Each line is exposed as a
+ * range of positions within the current window of the underlying {@link ByteSource}; lines never
+ * straddle two windows.
+ *
+ * @author Sebastian Schenker
+ */
+final class LpLexer implements Closeable {
+
+  private static final int COMMENT = '\\';
+  private static final int NO_COMMENT = 0x100; // equals no byte
+  private static final byte NAME_START = 1;
+  private static final byte NAME_PART = 2;
+  private static final byte[] NAME_CLASS = new byte[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; ++c) {
+      NAME_CLASS[c] = NAME_START | NAME_PART;
+      NAME_CLASS[Character.toUpperCase(c)] = NAME_START | NAME_PART;
+    }
+    for (final char c : "!\"#$%&()/,;?`'{}|~_".toCharArray()) {
+      NAME_CLASS[c] = NAME_START | NAME_PART;
+    }
+    for (final char c : "0123456789.".toCharArray()) {
+      NAME_CLASS[c] = NAME_PART;
+    }
+  }
+
+  private final ByteSource source;
+  private final int comment;
+  private ByteBuffer window;
+  private int next; // first position of the next raw line
+  private int rawLineStart;
+  private int lineStart;
+  private int lineEnd;
+  private int lineNumber;
+
+  LpLexer(final ByteSource source) throws IOException {
+    this(source, 0);
+  }
+
+  /** The given number of lines is taken to precede the input when numbering lines. */
+  LpLexer(final ByteSource source, final int lineNumber) throws IOException {
+    this(source, lineNumber, COMMENT);
+  }
+
+  private LpLexer(final ByteSource source, final int lineNumber, final int comment)
+      throws IOException {
+    this.source = source;
+    this.comment = comment;
+    this.window = source.first();
+    this.next = 0;
+    this.lineNumber = lineNumber;
+  }
+
+  /** Returns a lexer not taking any character as comment sign, e.g. for MPS input. */
+  static LpLexer withoutComments(final ByteSource source) throws IOException {
+    return new LpLexer(source, 0, NO_COMMENT);
+  }
+
+  /**
+   * Advances to the next non-blank line stripped of any white space and comment.
+   *
+   * @return false if the end of the input has been reached
+   */
+  boolean nextProperLine() throws IOException {
+    while (readRawLine()) {
+      int start = lineStart;
+      int end = lineEnd;
+      while (start < end && isWhitespace(window.get(start))) {
+        ++start;
+      }
+      while (end > start && isWhitespace(window.get(end - 1))) {
+        --end;
+      }
+      if (start < end) {
+        lineStart = start;
+        lineEnd = end;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Sets the current line range to the next raw line, cut off at the comment sign. */
+  private boolean readRawLine() throws IOException {
+    while (next >= window.limit()) {
+      if (!source.hasMore()) {
+        return false;
+      }
+      window = source.advance(next);
+      next = 0;
+    }
+    ++lineNumber;
+    int i = next;
+    int commentStart = -1;
+    while (true) {
+      final int limit = window.limit();
+      while (i < limit) {
+        final byte b = window.get(i);
+        if (b == '\n') {
+          break;
+        }
+        if (b == comment && commentStart == -1) {
+          commentStart = i;
+        }
+        ++i;
+      }
+      if (i < limit || !source.hasMore()) {
+        rawLineStart = next;
+        lineStart = next;
+        lineEnd = commentStart == -1 ? i : commentStart;
+        next = i + 1;
+        return true;
+      }
+      // line continues beyond the current window
+      final int scanned = i - next;
+      window = source.advance(next);
+      if (window.limit() <= scanned && source.hasMore()) {
+        throw new InputException(String.format("Line %d: line exceeds window size.", lineNumber));
+      }
+      if (commentStart != -1) {
+        commentStart -= next;
+      }
+      next = 0;
+      i = scanned;
+    }
+  }
+
+  int lineNumber() {
+    return lineNumber;
+  }
+
+  int lineStart() {
+    return lineStart;
+  }
+
+  /** Returns the start of the current line including any leading white space. */
+  int rawLineStart() {
+    return rawLineStart;
+  }
+
+  int lineEnd() {
+    return lineEnd;
+  }
+
+  /** Returns the position of the given window position within the input. */
+  long offset(final int index) {
+    return source.offset() + index;
+  }
+
+  /** Returns the position within the input of the raw line following the current line. */
+  long position() {
+    return offset(next);
+  }
+
+  byte byteAt(final int index) {
+    return window.get(index);
+  }
+
+  /** Returns the position of the first occurrence of c in [from, to) or -1 if there is none. */
+  int indexOf(final char c, final int from, final int to) {
+    for (int i = from; i < to; ++i) {
+      if (window.get(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the first position in [from, to) not holding a white space character. */
+  int skipWhitespace(final int from, final int to) {
+    int i = from;
+    while (i < to && isWhitespace(window.get(i))) {
+      ++i;
+    }
+    return i;
+  }
+
+  /** Returns the first position in [from, to) holding a white space character. */
+  int skipNonWhitespace(final int from, final int to) {
+    int i = from;
+    while (i < to && !isWhitespace(window.get(i))) {
+      ++i;
+    }
+    return i;
+  }
+
+  /** Returns the end of [from, to) stripped of trailing white space. */
+  int trimEnd(final int from, final int to) {
+    int i = to;
+    while (i > from && isWhitespace(window.get(i - 1))) {
+      --i;
+    }
+    return i;
+  }
+
+  /**
+   * Returns the end of the name starting at position from, or from if no name starts there. Names
+   * start with a letter or one of the symbols !"#$%&()/,;?`'{}|~_ and may further contain digits
+   * and periods.
+   */
+  int scanName(final int from, final int to) {
+    if (from == to || !hasClass(window.get(from), NAME_START)) {
+      return from;
+    }
+    int i = from + 1;
+    while (i < to && hasClass(window.get(i), NAME_PART)) {
+      ++i;
+    }
+    return i;
+  }
+
+  /** Returns whether the given string is a name as accepted by {@link #scanName(int, int)}. */
+  static boolean isName(final String s) {
+    if (s.isEmpty() || !hasClass(s.charAt(0), NAME_START)) {
+      return false;
+    }
+    for (int i = 1; i < s.length(); ++i) {
+      if (!hasClass(s.charAt(i), NAME_PART)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasClass(final char c, final byte nameClass) {
+    return c < NAME_CLASS.length && (NAME_CLASS[c] & nameClass) != 0;
+  }
+
+  /**
+   * Returns the end of the unsigned decimal number starting at position from, or from if no number
+   * starts there. An exponent is only taken as part of the number if it holds at least one digit.
+   */
+  int scanNumber(final int from, final int to) {
+    int i = from;
+    int digits = 0;
+    while (i < to && isDigit(window.get(i))) {
+      ++i;
+      ++digits;
+    }
+    if (i < to && window.get(i) == '.') {
+      ++i;
+      while (i < to && isDigit(window.get(i))) {
+        ++i;
+        ++digits;
+      }
+    }
+    if (digits == 0) {
+      return from;
+    }
+    if (i < to && (window.get(i) == 'e' || window.get(i) == 'E')) {
+      int j = i + 1;
+      if (j < to && (window.get(j) == '+' || window.get(j) == '-')) {
+        ++j;
+      }
+      if (j < to && isDigit(window.get(j))) {
+        i = j;
+        while (i < to && isDigit(window.get(i))) {
+          ++i;
+        }
+      }
+    }
+    return i;
+  }
+
+  /**
+   * Returns the position of the first comparison operator character (one of <, >, =) in [from, to)
+   * or -1 if there is none.
+   */
+  int indexOfOperator(final int from, final int to) {
+    for (int i = from; i < to; ++i) {
+      if (isOperator(window.get(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the end of the comparison operator of at most two characters starting at from. */
+  int operatorEnd(final int from, final int to) {
+    return (from + 1 < to && isOperator(window.get(from + 1))) ? from + 2 : from + 1;
+  }
+
+  /** Returns whether the bytes in [from, to) equal the given ASCII string, ignoring case. */
+  boolean equalsIgnoreCase(final int from, final int to, final String str) {
+    if (to - from != str.length()) {
+      return false;
+    }
+    for (int i = 0; i < str.length(); ++i) {
+      if (toLowerCase(window.get(from + i)) != toLowerCase(str.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns whether the current line equals the given ASCII string, ignoring case. */
+  boolean lineEqualsIgnoreCase(final String str) {
+    return equalsIgnoreCase(lineStart, lineEnd, str);
+  }
+
+  /** Returns the bytes in [from, to) as string. */
+  String string(final int from, final int to) {
+    final byte[] bytes = new byte[to - from];
+    window.get(from, bytes);
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  /** Returns the current line as string. */
+  String line() {
+    return string(lineStart, lineEnd);
+  }
+
+  ByteBuffer window() {
+    return window;
+  }
+
+  static boolean isDigit(final byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  private static boolean isOperator(final byte b) {
+    return b == '<' || b == '>' || b == '=';
+  }
+
+  private static boolean hasClass(final byte b, final byte nameClass) {
+    return b >= 0 && (NAME_CLASS[b] & nameClass) != 0;
+  }
+
+  static boolean isWhitespace(final byte b) {
+    return (b & 0xFF) <= ' ';
+  }
+
+  private static int toLowerCase(final int c) {
+    return (c >= 'A' && c <= 'Z') ? c + ('a' - 'A') : c;
+  }
+
+  @Override
+  public void close() throws IOException {
+    source.close();
+  }
+}
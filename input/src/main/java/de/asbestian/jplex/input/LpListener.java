@@ -0,0 +1,40 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+
+/**
+ * Receives the contents of an lp file from an {@link LpParser} in order of appearance. Variables
+ * are referred to by index; each variable is announced by {@link #variable(int, String)} before
+ * any other call refers to it. All methods do nothing by default.
+ *
+ * @author Sebastian Schenker
+ */
+public interface LpListener {
+
+  /** A variable appears for the first time. Indices are handed out consecutively, starting with 0. */
+  default void variable(final int index, final String name) {}
+
+  default void objectiveStart(final String name, final ObjectiveSense sense) {}
+
+  default void objectiveEnd() {}
+
+  default void constraintStart(final String name, final int lineNumber) {}
+
+  /** The given coefficient of a variable is added to the current objective or constraint. */
+  default void addend(final int variable, final double coefficient) {}
+
+  default void constraintEnd(final ConstraintSense sense, final double rhs) {}
+
+  /**
+   * A bound of the bounds section; LE gives an upper bound, GE a lower bound and EQ both. A free
+   * variable gets the bounds GE negative infinity and LE positive infinity.
+   */
+  default void bound(final int variable, final ConstraintSense sense, final double value) {}
+
+  default void variableType(final int variable, final VariableType type) {}
+
+  /** The end section has been reached. */
+  default void end() {}
+}
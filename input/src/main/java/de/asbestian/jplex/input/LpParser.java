@@ -0,0 +1,613 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.ParseStatistics.ParseStatisticsBuilder;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses input files given in lp format and reports their contents to an {@link LpListener} while
+ * reading, without building a model. Apart from the symbol table assigning variable indices, the
+ * memory needed does not depend on the size of the input.
+ *
+ * @author Sebastian Schenker
+ */
+public final class LpParser {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LpParser.class);
+
+  public enum Section {
+    START(Lists.immutable.empty()),
+    OBJECTIVE(Lists.immutable.empty()),
+    CONSTRAINTS(Lists.immutable.of("subject to", "such that", "s.t.", "st.", "st")),
+    BOUNDS(Lists.immutable.of("bounds", "bound")),
+    BINARY(Lists.immutable.of("binary", "binaries", "bin")),
+    GENERAL(Lists.immutable.of("generals", "general", "gen")),
+    END(Lists.immutable.of("end"));
+
+    boolean matches(final LpLexer lexer) {
+      return representation.anySatisfyWith((rep, lex) -> lex.lineEqualsIgnoreCase(rep), lexer);
+    }
+
+    /** Returns the section whose header is the current line or null if there is none. */
+    static Section headerOf(final LpLexer lexer) {
+      for (final var section : values()) {
+        if (section.matches(lexer)) {
+          return section;
+        }
+      }
+      return null;
+    }
+
+    Section(final ImmutableList<String> values) {
+      representation = values;
+    }
+
+    private final ImmutableList<String> representation;
+  }
+
+  private static boolean notReached(final LpLexer lexer, final List<Section> sections) {
+    for (final var section : sections) {
+      if (section.matches(lexer)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Section getSection(final LpLexer lexer, final List<Section> allowed) {
+    for (final var section : allowed) {
+      if (section.matches(lexer)) {
+        return section;
+      }
+    }
+    throw new InputException(String.format("No section found. Expected sections: %s", allowed));
+  }
+
+  private void ensureSection(final Section expected) {
+    if (currentSection != expected) {
+      throw new InputException(String.format("Expected %s, found %s.", expected, currentSection));
+    }
+  }
+
+  private enum Sign {
+    MINUS(-1),
+    PLUS(1),
+    UNDEF(0);
+
+    Sign(final int value) {
+      this.value = value;
+    }
+
+    final int value;
+  }
+
+  private sealed interface ParsedConstraintLine permits Unit, Pair, Triple {}
+  // lhsEnd: end position of the left-hand side within the current line
+  private static record Unit(int lhsEnd) implements ParsedConstraintLine {}
+  private static record Pair(ConstraintSense sense, double rhs) implements ParsedConstraintLine {}
+  private static record Triple(int lhsEnd, ConstraintSense sense, double rhs) implements
+      ParsedConstraintLine {}
+
+  private final SymbolTable symbols;
+  private final LpListener listener;
+  private final ParseStatisticsBuilder statistics;
+  private final ParseTrace trace = ParseTrace.ENABLED ? new ParseTrace() : null;
+  private int numberOfVariables; // announced to the listener
+  private Section currentSection;
+  private int currentLineNumber;
+  private boolean inObjective;
+  private boolean inConstraint;
+  private String constraintName;
+  private int constraintLineNumber;
+  private int constraintLength; // number of addends of the current constraint
+  private long addends; // number of addends read so far
+
+  /**
+   * Creates a parser reporting to the given listener. Variables not yet held by the given symbol
+   * table are added to it on their first appearance.
+   */
+  LpParser(final SymbolTable symbols, final LpListener listener) {
+    this(symbols, listener, new ParseStatisticsBuilder());
+  }
+
+  /** Creates a parser which times the sections it enters with the given statistics. */
+  LpParser(final SymbolTable symbols, final LpListener listener,
+      final ParseStatisticsBuilder statistics) {
+    this.symbols = symbols;
+    this.listener = listener;
+    this.statistics = statistics;
+    this.numberOfVariables = symbols.size();
+    this.currentSection = Section.START;
+    this.currentLineNumber = 0;
+  }
+
+  /**
+   * Parses the given file, reporting its contents to the given listener.
+   *
+   * @throws InputException if the file is not a valid lp file
+   */
+  public static void parse(final Path path, final LpListener listener) throws IOException {
+    parse(LpSource.of(path), listener);
+  }
+
+  /**
+   * Parses the given source, reporting its contents to the given listener.
+   *
+   * @throws InputException if the source does not hold a valid lp file
+   */
+  public static void parse(final LpSource source, final LpListener listener) throws IOException {
+    try (final LpLexer lexer = new LpLexer(source.open())) {
+      final var parser = new LpParser(new SymbolTable(), listener);
+      try {
+        parser.readObjectives(lexer);
+        parser.readConstraints(lexer);
+        parser.readRemainingSections(lexer);
+      } catch (final InputException e) {
+        parser.dumpTrace();
+        throw e;
+      }
+    }
+  }
+
+  SymbolTable symbols() {
+    return symbols;
+  }
+
+  Section currentSection() {
+    return currentSection;
+  }
+
+  int lineNumber() {
+    return currentLineNumber;
+  }
+
+  long addends() {
+    return addends;
+  }
+
+  /** Logs the most recent steps of this parser if tracing is on; see {@link ParseTrace}. */
+  void dumpTrace() {
+    if (ParseTrace.ENABLED) {
+      trace.dump(LOGGER);
+    }
+  }
+
+  void setSection(final Section section) {
+    currentSection = section;
+    statistics.enter(section, currentLineNumber);
+    LOGGER.debug("Switching to section {}.", currentSection);
+  }
+
+  /** Returns whether the sense of the constraint read last is still missing. */
+  boolean isInConstraint() {
+    return inConstraint;
+  }
+
+  InputException constraintWithoutSense() {
+    return new InputException(String.format("Line %d: constraint %s without sense.",
+        constraintLineNumber, constraintName));
+  }
+
+  /** Reads the optimisation direction and the objectives, up to the constraints section header. */
+  void readObjectives(final LpLexer lexer) throws IOException, InputException {
+    final var objectiveSense = readObjectiveSense(lexer);
+    ensureSection(Section.OBJECTIVE);
+    nextProperLine(lexer);
+    while(!Section.CONSTRAINTS.matches(lexer)) {
+      int begin = lexer.lineStart();
+      final int colonIndex = lexer.indexOf(':', begin, lexer.lineEnd());
+      if (colonIndex != -1) { // objective function name found
+        final var name = getName(lexer, begin, colonIndex);
+        if (ParseTrace.ENABLED) {
+          trace.add("Line %d: objective %s.", currentLineNumber, name);
+        }
+        if (inObjective) {
+          listener.objectiveEnd();
+        }
+        listener.objectiveStart(name, objectiveSense);
+        inObjective = true;
+        begin = lexer.skipWhitespace(colonIndex + 1, lexer.lineEnd());
+      }
+      if (!inObjective) {
+        throw new InputException(String.format("Line %d: objective without name.", currentLineNumber));
+      }
+      addAddends(lexer, begin, lexer.lineEnd());
+      nextProperLine(lexer);
+    }
+    if (inObjective) {
+      listener.objectiveEnd();
+      inObjective = false;
+    }
+    setSection(Section.CONSTRAINTS);
+  }
+
+  private ObjectiveSense readObjectiveSense(final LpLexer lexer) throws IOException, InputException {
+    ensureSection(Section.START);
+    statistics.enter(Section.START, currentLineNumber);
+    nextProperLine(lexer);
+    final var isMax = ObjectiveSense.MAX.rep().anyMatch(lexer::lineEqualsIgnoreCase);
+    final var isMin = ObjectiveSense.MIN.rep().anyMatch(lexer::lineEqualsIgnoreCase);
+    if (isMax || isMin) {
+      setSection(Section.OBJECTIVE);
+      if (isMax) {
+        LOGGER.debug("Found maximisation direction.");
+        return ObjectiveSense.MAX;
+      } else {
+        LOGGER.debug("Found minimisation direction.");
+        return ObjectiveSense.MIN;
+      }
+    }
+    else {
+      throw new InputException(
+          String.format("Line %d: unrecognised optimisation direction %s.", currentLineNumber, lexer.line()));
+    }
+  }
+
+  /** Reads the constraints section, up to the header of the following section. */
+  void readConstraints(final LpLexer lexer) throws IOException, InputException {
+    ensureSection(Section.CONSTRAINTS);
+    final var sections = List.of(Section.BOUNDS, Section.BINARY, Section.GENERAL, Section.END);
+    nextProperLine(lexer);
+    while (notReached(lexer, sections)) {
+      readConstraintLine(lexer);
+      nextProperLine(lexer);
+    }
+    if (inConstraint) {
+      throw constraintWithoutSense();
+    }
+    setSection(getSection(lexer, sections));
+  }
+
+  /** Reads all lines of the lexer as lines of the constraints section. */
+  void readConstraintLines(final LpLexer lexer) throws IOException, InputException {
+    while (lexer.nextProperLine()) {
+      currentLineNumber = lexer.lineNumber();
+      readConstraintLine(lexer);
+    }
+  }
+
+  private void readConstraintLine(final LpLexer lexer) {
+    int begin = lexer.lineStart();
+    final int colonIndex = lexer.indexOf(':', begin, lexer.lineEnd());
+    if (colonIndex != -1) { // constraint name found
+      final var name = getName(lexer, begin, colonIndex);
+      if (ParseTrace.ENABLED) {
+        trace.add("Line %d: constraint %s.", currentLineNumber, name);
+      }
+      if (inConstraint) {
+        throw constraintWithoutSense();
+      }
+      listener.constraintStart(name, currentLineNumber);
+      inConstraint = true;
+      constraintName = name;
+      constraintLineNumber = currentLineNumber;
+      constraintLength = 0;
+      begin = lexer.skipWhitespace(colonIndex + 1, lexer.lineEnd());
+    }
+    final var result = parseConstraintLine(lexer, begin, lexer.lineEnd());
+    if (!inConstraint) {
+      throw new InputException(String.format("Line %d: constraint without name.", currentLineNumber));
+    }
+    switch (result) {
+      case Unit unit -> addAddends(lexer, begin, unit.lhsEnd());
+      case Pair pair -> endConstraint(pair.sense, pair.rhs);
+      case Triple triple -> {
+        addAddends(lexer, begin, triple.lhsEnd());
+        endConstraint(triple.sense, triple.rhs);
+      }
+    }
+  }
+
+  private void endConstraint(final ConstraintSense sense, final double rhs) {
+    if (constraintLength == 0) {
+      throw new InputException(String.format("Line %d: expected non-empty constraint.", currentLineNumber));
+    }
+    listener.constraintEnd(sense, rhs);
+    inConstraint = false;
+  }
+
+  /**
+   * Reads the remaining sections, starting with the section the header of which has been read
+   * last, up to and including the end section.
+   */
+  void readRemainingSections(final LpLexer lexer) throws IOException, InputException {
+    while(currentSection != Section.END) {
+      switch (currentSection) {
+        case BOUNDS -> readBounds(lexer);
+        case BINARY -> readBinary(lexer);
+        case GENERAL -> readGeneral(lexer);
+        default -> throw new InputException(String.format("Unexpected section: %s", currentSection));
+      }
+    }
+    statistics.leave(currentLineNumber);
+    listener.end();
+  }
+
+  /**
+   * Reads the sections of the given lexer, the first proper line of which is the header of the
+   * given section, up to and including the end section.
+   */
+  void readRemainingSections(final LpLexer lexer, final Section first) throws IOException,
+      InputException {
+    nextProperLine(lexer);
+    setSection(first);
+    readRemainingSections(lexer);
+  }
+
+  private void readBounds(final LpLexer lexer) throws IOException, InputException {
+    ensureSection(Section.BOUNDS);
+    final var sections = List.of(Section.BINARY, Section.GENERAL, Section.END);
+    nextProperLine(lexer);
+    while (notReached(lexer, sections)) {
+      parseBound(lexer);
+      nextProperLine(lexer);
+    }
+    setSection(getSection(lexer, sections));
+  }
+
+  /** Reads all lines of the lexer as lines of the bounds section. */
+  void readBoundLines(final LpLexer lexer) throws IOException, InputException {
+    while (lexer.nextProperLine()) {
+      currentLineNumber = lexer.lineNumber();
+      parseBound(lexer);
+    }
+  }
+
+  private void readType(final LpLexer lexer, final Section expected, final List<Section> allowed,
+      final VariableType type) throws IOException {
+    ensureSection(expected);
+    nextProperLine(lexer);
+    while(notReached(lexer, allowed)) {
+      final int end = lexer.lineEnd();
+      int begin = lexer.lineStart();
+      while (begin < end) {
+        final int nameEnd = lexer.skipNonWhitespace(begin, end);
+        listener.variableType(getVariableIndex(lexer, begin, nameEnd), type);
+        begin = lexer.skipWhitespace(nameEnd, end);
+      }
+      nextProperLine(lexer);
+    }
+    setSection(getSection(lexer, allowed));
+  }
+
+  private void readBinary(final LpLexer lexer) throws IOException {
+    readType(lexer, Section.BINARY, List.of(Section.GENERAL, Section.END), VariableType.BINARY);
+  }
+
+  private void readGeneral(final LpLexer lexer) throws IOException {
+    readType(lexer, Section.GENERAL, List.of(Section.BINARY, Section.END), VariableType.INTEGER);
+  }
+
+  private static double parseValue(final LpLexer lexer, final int from, final int to) {
+    try {
+      return NumberParser.parse(lexer.window(), from, to);
+    }
+    catch (final NumberFormatException e) {
+      throw new InputException(String.format("Line %d: %s is not a valid number.", lexer.lineNumber(),
+          lexer.string(from, to)));
+    }
+  }
+
+  // throws if not found
+  private int getVariableIndex(final LpLexer lexer, final int from, final int to) {
+    final int begin = lexer.skipWhitespace(from, to);
+    final int end = lexer.trimEnd(begin, to);
+    final int index = symbols.indexOf(lexer.window(), begin, end);
+    if (index == -1) {
+      throw new InputException(String.format("Line %d: unknown variable name %s", currentLineNumber,
+          lexer.string(begin, end)));
+    }
+    return index;
+  }
+
+  /**
+   * Parses the current line of the bounds section in a single pass. Accepted are the forms
+   * "var free", "var sense bound", "bound sense var" and "bound sense var sense bound".
+   */
+  private void parseBound(final LpLexer lexer) {
+    final int begin = lexer.lineStart();
+    final int end = lexer.lineEnd();
+    final int op1 = lexer.indexOfOperator(begin, end);
+    if (op1 == -1) { // var free
+      final int nameEnd = lexer.skipNonWhitespace(begin, end);
+      if (!lexer.equalsIgnoreCase(lexer.skipWhitespace(nameEnd, end), end, "free")) {
+        throw new InputException(String.format("Line %d: expected free variable expression, found %s.",
+            currentLineNumber, lexer.line()));
+      }
+      final int variable = getVariableIndex(lexer, begin, nameEnd);
+      if (ParseTrace.ENABLED) {
+        trace.add("Line %d: free variable %s.", currentLineNumber, symbols.name(variable));
+      }
+      listener.bound(variable, ConstraintSense.GE, Double.NEGATIVE_INFINITY);
+      listener.bound(variable, ConstraintSense.LE, Double.POSITIVE_INFINITY);
+      return;
+    }
+    final int op1End = lexer.operatorEnd(op1, end);
+    final var sense1 = parseSense(lexer, op1, op1End);
+    final int op2 = lexer.indexOfOperator(op1End, end);
+    if (op2 == -1) { // var sense bound || bound sense var
+      final int lhsEnd = lexer.trimEnd(begin, op1);
+      final int rhsBegin = lexer.skipWhitespace(op1End, end);
+      final int index = symbols.indexOf(lexer.window(), begin, lhsEnd);
+      if (index != -1) { // var sense bound
+        final double value = parseValue(lexer, rhsBegin, end);
+        if (ParseTrace.ENABLED) {
+          trace.add("Line %d: bound %s %s %s.", currentLineNumber, symbols.name(index), sense1, value);
+        }
+        listener.bound(index, sense1, value);
+      } else { // bound sense var
+        final int variable = getVariableIndex(lexer, rhsBegin, end);
+        final double value = parseValue(lexer, begin, lhsEnd);
+        if (ParseTrace.ENABLED) {
+          trace.add("Line %d: bound %s %s %s.", currentLineNumber, symbols.name(variable),
+              reverse(sense1), value);
+        }
+        listener.bound(variable, reverse(sense1), value);
+      }
+      return;
+    }
+    // lb <= var <= ub
+    final int op2End = lexer.operatorEnd(op2, end);
+    final var sense2 = parseSense(lexer, op2, op2End);
+    if (lexer.indexOfOperator(op2End, end) != -1) {
+      throw new InputException(String.format("Line %d: unknown bound format %s", currentLineNumber,
+          lexer.line()));
+    }
+    final int variable = getVariableIndex(lexer, op1End, op2);
+    final double first = parseValue(lexer, begin, lexer.trimEnd(begin, op1));
+    final double second = parseValue(lexer, lexer.skipWhitespace(op2End, end), end);
+    if (ParseTrace.ENABLED) {
+      trace.add("Line %d: bounds %s %s %s %s %s.", currentLineNumber, first, sense1,
+          symbols.name(variable), sense2, second);
+    }
+    listener.bound(variable, reverse(sense1), first);
+    listener.bound(variable, sense2, second);
+  }
+
+  private static ConstraintSense reverse(final ConstraintSense sense) {
+    return switch (sense) {
+      case LE -> ConstraintSense.GE;
+      case GE -> ConstraintSense.LE;
+      case EQ -> ConstraintSense.EQ;
+    };
+  }
+
+  /**
+   * Returns the sense of the comparison operator held by [from, to). Accepted are <, <=, =<, >, >=,
+   * =>, = and ==.
+   */
+  private ConstraintSense parseSense(final LpLexer lexer, final int from, final int to) {
+    final byte first = lexer.byteAt(from);
+    final byte last = lexer.byteAt(to - 1);
+    if (to - from == 1 || first == '=' || last == '=') {
+      switch (first == '=' ? last : first) {
+        case '<': return ConstraintSense.LE;
+        case '>': return ConstraintSense.GE;
+        case '=': return ConstraintSense.EQ;
+        default: break;
+      }
+    }
+    throw new InputException(String.format("Line %d: invalid sense %s.", currentLineNumber,
+        lexer.string(from, to)));
+  }
+
+  /**
+   * Splits the constraint line held by [from, to) at its comparison operator, if any, and parses
+   * the right-hand side.
+   */
+  private ParsedConstraintLine parseConstraintLine(final LpLexer lexer, final int from, final int to) {
+    final int op = lexer.indexOfOperator(from, to);
+    if (op == -1) { // only lhs
+      return new Unit(to);
+    }
+    final int opEnd = lexer.operatorEnd(op, to);
+    final var constraintSense = parseSense(lexer, op, opEnd);
+    final int rhsBegin = lexer.skipWhitespace(opEnd, to);
+    if (rhsBegin == to || lexer.indexOfOperator(rhsBegin, to) != -1) {
+      throw new InputException(String.format("Line %d: invalid constraint line %s.",
+          currentLineNumber, lexer.string(from, to)));
+    }
+    final double rhs = parseValue(lexer, rhsBegin, to);
+    if (ParseTrace.ENABLED) {
+      trace.add("Line %d: sense %s, right-hand side %s.", currentLineNumber, constraintSense, rhs);
+    }
+    final int lhsEnd = lexer.trimEnd(from, op);
+    if (lhsEnd == from) { // sense rhs
+      return new Pair(constraintSense, rhs);
+    }
+    return new Triple(lhsEnd, constraintSense, rhs); // lhs sense rhs
+  }
+
+  private static String getName(final LpLexer lexer, final int beginIndex, final int endIndex) {
+    final int begin = lexer.skipWhitespace(beginIndex, endIndex);
+    final int end = lexer.trimEnd(begin, endIndex);
+    final String name = lexer.string(begin, end);
+    if (begin == end || lexer.scanName(begin, end) != end) {
+      throw new InputException(String.format("Line %d: invalid name %s.", lexer.lineNumber(), name));
+    }
+    return name;
+  }
+
+  /**
+   * Advances the lexer to the next non-blank line stripped of any white space and comment.
+   */
+  private void nextProperLine(final LpLexer lexer) throws IOException {
+    if (!lexer.nextProperLine()) {
+      throw new InputException(String.format("Line %d: unexpected end of file.", lexer.lineNumber()));
+    }
+    currentLineNumber = lexer.lineNumber();
+  }
+
+  /**
+   * Parses the linear combination held by [from, to) of the current line in a single pass and
+   * reports each addend to the listener as soon as it is read, leaving the merging of duplicate
+   * variables to the listener; variables appearing for the first time are added to the symbol
+   * table and announced to the listener.
+   */
+  private void addAddends(final LpLexer lexer, final int from, final int to) throws InputException {
+    var sign = Sign.PLUS;
+    int pos = lexer.skipWhitespace(from, to);
+    while (pos < to) {
+      final byte c = lexer.byteAt(pos);
+      if (c == '+') {
+        sign = Sign.PLUS;
+        ++pos;
+      } else if (c == '-') {
+        sign = Sign.MINUS;
+        ++pos;
+      } else {
+        if (sign == Sign.UNDEF) {
+          throw new InputException(String.format("line %d: missing sign", currentLineNumber));
+        }
+        pos = parseAddend(lexer, pos, to, sign);
+        sign = Sign.UNDEF;
+      }
+      pos = lexer.skipWhitespace(pos, to);
+    }
+  }
+
+  /**
+   * Parses the addend starting at position from, consisting of an optional coefficient followed
+   * by a variable name, and returns the position following it.
+   */
+  private int parseAddend(final LpLexer lexer, final int from, final int to, final Sign sign)
+      throws InputException {
+    double coeff = 1;
+    int pos = from;
+    final int numberEnd = lexer.scanNumber(pos, to);
+    if (numberEnd != pos) {
+      coeff = parseValue(lexer, pos, numberEnd);
+      pos = lexer.skipWhitespace(numberEnd, to);
+    }
+    final int nameEnd = lexer.scanName(pos, to);
+    if (nameEnd == pos || (nameEnd < to && !isAddendEnd(lexer.byteAt(nameEnd)))) {
+      final int end = lexer.skipNonWhitespace(nameEnd, to);
+      throw new InputException(String.format("Line %d: %s is not a valid addend.", currentLineNumber,
+          lexer.string(from, end)));
+    }
+    final int index = symbols.intern(lexer.window(), pos, nameEnd);
+    if (index == numberOfVariables) { // first appearance
+      ++numberOfVariables;
+      listener.variable(index, symbols.name(index));
+    }
+    if (ParseTrace.ENABLED) {
+      trace.add("Line %d: addend %s %s.", currentLineNumber, sign.value * coeff, symbols.name(index));
+    }
+    ++constraintLength;
+    ++addends;
+    listener.addend(index, sign.value * coeff);
+    return nameEnd;
+  }
+
+  private static boolean isAddendEnd(final byte b) {
+    return b == '+' || b == '-' || LpLexer.isWhitespace(b);
+  }
+}
@@ -0,0 +1,227 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.LpParser.Section;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+
+/**
+ * Splits the constraints and bounds sections of an lp file into chunks that can be parsed
+ * independently of each other. The part of the file following the constraints section header is
+ * divided into blocks of about equal size, each starting at the beginning of a line. The blocks are
+ * scanned in parallel for section headers and for their first named constraint, and the results
+ * are combined in file order: constraint chunks start at named constraints, bound chunks at block
+ * starts. Everything from the first section header following the bounds section on is left to a
+ * sequential parse.
+ *
+ * @author Sebastian Schenker
+ */
+final class LpPrescan {
+
+  /** Bytes [from, to) of the file; lineOffset is the number of lines preceding the chunk. */
+  record Chunk(long from, long to, int lineOffset) {
+
+    LpLexer lexer(final Path path) throws IOException {
+      return new LpLexer(new MappedFileSource(path, from, to, MappedFileSource.DEFAULT_WINDOW_SIZE),
+          lineOffset);
+    }
+  }
+
+  // section header or, if section is null, the first named constraint of a block; the line number
+  // is relative to the block start
+  private static record Mark(long offset, long next, int lineNumber, Section section) {}
+
+  private static record Block(int lines, ImmutableList<Mark> marks) {}
+
+  private static final List<Section> CONSTRAINTS_END =
+      List.of(Section.BOUNDS, Section.BINARY, Section.GENERAL, Section.END);
+  private static final List<Section> BOUNDS_END = List.of(Section.BINARY, Section.GENERAL, Section.END);
+
+  private final ImmutableList<Chunk> constraintChunks;
+  private final ImmutableList<Chunk> boundChunks;
+  private final Chunk tail;
+  private final Section tailSection;
+
+  private LpPrescan(final ImmutableList<Chunk> constraintChunks, final ImmutableList<Chunk> boundChunks,
+      final Chunk tail, final Section tailSection) {
+    this.constraintChunks = constraintChunks;
+    this.boundChunks = boundChunks;
+    this.tail = tail;
+    this.tailSection = tailSection;
+  }
+
+  /** Chunks of the constraints section in file order; each one starts with a named constraint. */
+  ImmutableList<Chunk> constraintChunks() {
+    return constraintChunks;
+  }
+
+  /** Chunks of the bounds section in file order; empty if there is no bounds section. */
+  ImmutableList<Chunk> boundChunks() {
+    return boundChunks;
+  }
+
+  /** The remainder of the file, starting with the header line of {@link #tailSection()}. */
+  Chunk tail() {
+    return tail;
+  }
+
+  Section tailSection() {
+    return tailSection;
+  }
+
+  /**
+   * Scans the given file from position from on, which is to be the start of the line following the
+   * constraints section header. Returns an empty optional if the file does not have the expected
+   * section layout or cannot be split; a sequential parse is then needed to report the problem.
+   *
+   * @param lineOffset the number of lines preceding position from
+   * @param blocks the number of blocks to scan in parallel
+   */
+  static Optional<LpPrescan> scan(final Path path, final long from, final int lineOffset,
+      final int blocks) throws IOException {
+    final long[] starts;
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      starts = blockStarts(channel, from, channel.size(), blocks);
+    }
+    final List<Block> scanned;
+    try {
+      scanned = IntStream.range(0, blocks).parallel()
+          .mapToObj(b -> scanBlock(path, starts[b], starts[b + 1]))
+          .toList();
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    } catch (final InputException e) {
+      return Optional.empty();
+    }
+    final int[] lineOffsets = new int[blocks + 1];
+    lineOffsets[0] = lineOffset;
+    for (int b = 0; b < blocks; ++b) {
+      lineOffsets[b + 1] = lineOffsets[b] + scanned.get(b).lines();
+    }
+    return combine(scanned, starts, lineOffsets);
+  }
+
+  private static Optional<LpPrescan> combine(final List<Block> scanned, final long[] starts,
+      final int[] lineOffsets) {
+    final MutableList<Chunk> constraintChunks = Lists.mutable.empty();
+    long chunkStart = starts[0];
+    int chunkLineOffset = lineOffsets[0];
+    Mark constraintsEnd = null;
+    for (int b = 0; b < scanned.size(); ++b) {
+      for (final Mark mark : scanned.get(b).marks()) {
+        final int lineNumber = lineOffsets[b] + mark.lineNumber();
+        if (constraintsEnd == null) {
+          if (mark.section() == null) {
+            if (mark.offset() > chunkStart) {
+              constraintChunks.add(new Chunk(chunkStart, mark.offset(), chunkLineOffset));
+              chunkStart = mark.offset();
+              chunkLineOffset = lineNumber - 1;
+            }
+          } else if (CONSTRAINTS_END.contains(mark.section())) {
+            constraintChunks.add(new Chunk(chunkStart, mark.offset(), chunkLineOffset));
+            if (mark.section() != Section.BOUNDS) {
+              return Optional.of(new LpPrescan(constraintChunks.toImmutable(), Lists.immutable.empty(),
+                  new Chunk(mark.offset(), starts[scanned.size()], lineNumber - 1), mark.section()));
+            }
+            constraintsEnd = new Mark(mark.offset(), mark.next(), lineNumber, mark.section());
+          } else {
+            return Optional.empty();
+          }
+        } else if (mark.section() != null) {
+          if (!BOUNDS_END.contains(mark.section())) {
+            return Optional.empty();
+          }
+          final var boundChunks = boundChunks(constraintsEnd, mark.offset(), starts, lineOffsets);
+          return Optional.of(new LpPrescan(constraintChunks.toImmutable(), boundChunks,
+              new Chunk(mark.offset(), starts[scanned.size()], lineNumber - 1), mark.section()));
+        }
+      }
+    }
+    return Optional.empty(); // no section following the constraints or bounds section
+  }
+
+  // splits the bounds section at the block starts lying within it
+  private static ImmutableList<Chunk> boundChunks(final Mark header, final long to, final long[] starts,
+      final int[] lineOffsets) {
+    final MutableList<Chunk> chunks = Lists.mutable.empty();
+    long chunkStart = header.next();
+    int chunkLineOffset = header.lineNumber();
+    for (int b = 1; b < starts.length - 1; ++b) {
+      if (starts[b] > chunkStart && starts[b] < to) {
+        chunks.add(new Chunk(chunkStart, starts[b], chunkLineOffset));
+        chunkStart = starts[b];
+        chunkLineOffset = lineOffsets[b];
+      }
+    }
+    chunks.add(new Chunk(chunkStart, to, chunkLineOffset));
+    return chunks.toImmutable();
+  }
+
+  private static Block scanBlock(final Path path, final long from, final long to) {
+    final MutableList<Mark> marks = Lists.mutable.empty();
+    boolean seenName = false;
+    boolean seenHeader = false;
+    try (final LpLexer lexer = new Chunk(from, to, 0).lexer(path)) {
+      while (lexer.nextProperLine()) {
+        final var section = Section.headerOf(lexer);
+        if (section != null) {
+          marks.add(new Mark(lexer.offset(lexer.lineStart()), lexer.position(), lexer.lineNumber(),
+              section));
+          seenHeader = true;
+        } else if (!seenName && !seenHeader
+            && lexer.indexOf(':', lexer.lineStart(), lexer.lineEnd()) != -1) {
+          marks.add(new Mark(lexer.offset(lexer.lineStart()), lexer.position(), lexer.lineNumber(),
+              null));
+          seenName = true;
+        }
+      }
+      return new Block(lexer.lineNumber(), marks.toImmutable());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Returns from, the starts of the lines following the block boundaries, and to. */
+  private static long[] blockStarts(final FileChannel channel, final long from, final long to,
+      final int blocks) throws IOException {
+    final long[] starts = new long[blocks + 1];
+    starts[0] = from;
+    starts[blocks] = to;
+    final long length = (to - from) / blocks;
+    final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    for (int b = 1; b < blocks; ++b) {
+      final long nominal = Math.max(from + b * length, starts[b - 1]);
+      starts[b] = nominal == from ? from : nextLineStart(channel, nominal - 1, to, buffer);
+    }
+    return starts;
+  }
+
+  // returns the position following the first line break at or after position pos
+  private static long nextLineStart(final FileChannel channel, final long pos, final long to,
+      final ByteBuffer buffer) throws IOException {
+    long offset = pos;
+    while (offset < to) {
+      buffer.clear();
+      final int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; ++i) {
+        if (buffer.get(i) == '\n') {
+          return Math.min(offset + i + 1, to);
+        }
+      }
+      offset += read;
+    }
+    return to;
+  }
+}
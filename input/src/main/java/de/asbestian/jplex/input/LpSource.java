@@ -0,0 +1,194 @@
+package de.asbestian.jplex.input;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An input in lp format, read in the fastest way available for its kind: files are mapped into
+ * memory, channels are read into direct buffers, streams straight into heap buffers, and inputs
+ * held in memory are parsed in place. Streams and channels are read from their current position
+ * on and are left open; a source based on them can only be read once.
+ *
+ * <p>Compressed inputs are recognised by their magic bytes and decompressed on a separate thread
+ * while being parsed; see {@link Decompressor} for the supported formats.
+ *
+ * @author Sebastian Schenker
+ */
+public final class LpSource {
+
+  // opens the bytes of the input
+  private interface Opener {
+    ByteSource open() throws IOException;
+  }
+
+  private final String name;
+  private final Path path;
+  private final Opener opener;
+
+  private LpSource(final String name, final Path path, final Opener opener) {
+    this.name = name;
+    this.path = path;
+    this.opener = opener;
+  }
+
+  public static LpSource of(final Path path) {
+    Objects.requireNonNull(path);
+    return new LpSource(path.toString(), path, () -> {
+      final var decompressor = detect(path);
+      if (decompressor.isPresent()) {
+        return decoding(decompressor.get(), Files.newInputStream(path));
+      }
+      return new MappedFileSource(path);
+    });
+  }
+
+  public static LpSource of(final InputStream stream) {
+    Objects.requireNonNull(stream);
+    return new LpSource("input stream", null, () -> {
+      if (stream instanceof FileInputStream file) {
+        final var decompressor = detect(file.getChannel());
+        if (decompressor.isPresent()) {
+          return decoding(decompressor.get(), unclosable(stream));
+        }
+        return new MappedFileSource(file.getChannel());
+      }
+      final byte[] head = new byte[Decompressor.MAGIC_LENGTH];
+      int length = 0;
+      int read;
+      while (length < head.length && (read = stream.read(head, length, head.length - length)) >= 0) {
+        length += read;
+      }
+      final var unread = new PushbackInputStream(stream, head.length);
+      unread.unread(head, 0, length);
+      final var decompressor = Decompressors.detect(head, length);
+      if (decompressor.isPresent()) {
+        return decoding(decompressor.get(), unclosable(unread));
+      }
+      return StreamSource.of(unread);
+    });
+  }
+
+  public static LpSource of(final ReadableByteChannel channel) {
+    Objects.requireNonNull(channel);
+    return new LpSource("channel", null, () -> {
+      if (channel instanceof FileChannel file) {
+        final var decompressor = detect(file);
+        if (decompressor.isPresent()) {
+          return decoding(decompressor.get(), unclosable(Channels.newInputStream(channel)));
+        }
+        return new MappedFileSource(file);
+      }
+      final var head = ByteBuffer.allocate(Decompressor.MAGIC_LENGTH);
+      while (head.hasRemaining() && channel.read(head) >= 0) {
+        // until the head is complete or the input ends
+      }
+      head.flip();
+      final var decompressor = Decompressors.detect(head.array(), head.limit());
+      if (decompressor.isPresent()) {
+        final var rest = unclosable(Channels.newInputStream(channel));
+        return decoding(decompressor.get(), new SequenceInputStream(
+            new ByteArrayInputStream(head.array(), 0, head.limit()), rest));
+      }
+      return StreamSource.of(head, channel);
+    });
+  }
+
+  /** The array is parsed in place and must not be modified while being read. */
+  public static LpSource of(final byte[] bytes) {
+    Objects.requireNonNull(bytes);
+    return new LpSource("byte array", null, () -> {
+      final var decompressor = Decompressors.detect(bytes, Math.min(bytes.length,
+          Decompressor.MAGIC_LENGTH));
+      if (decompressor.isPresent()) {
+        return decoding(decompressor.get(), new ByteArrayInputStream(bytes));
+      }
+      return new ArraySource(bytes);
+    });
+  }
+
+  /** The characters are read as if given in UTF-8. */
+  public static LpSource of(final CharSequence text) {
+    Objects.requireNonNull(text);
+    return new LpSource("text", null, () -> new ArraySource(encode(text)));
+  }
+
+  // copies ASCII text byte by byte, which is what lp files usually hold
+  private static byte[] encode(final CharSequence text) {
+    final byte[] bytes = new byte[text.length()];
+    for (int i = 0; i < bytes.length; ++i) {
+      final char c = text.charAt(i);
+      if (c >= 0x80) {
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+      }
+      bytes[i] = (byte) c;
+    }
+    return bytes;
+  }
+
+  private static Optional<Decompressor> detect(final Path path) throws IOException {
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return detect(channel);
+    }
+  }
+
+  // reads the head of the channel without changing its position
+  private static Optional<Decompressor> detect(final FileChannel channel) throws IOException {
+    final var head = ByteBuffer.allocate(Decompressor.MAGIC_LENGTH);
+    final long position = channel.position();
+    while (head.hasRemaining() && channel.read(head, position + head.position()) >= 0) {
+      // until the head is complete or the file ends
+    }
+    return Decompressors.detect(head.array(), head.position());
+  }
+
+  private static ByteSource decoding(final Decompressor decompressor, final InputStream compressed)
+      throws IOException {
+    try {
+      return StreamSource.decoding(decompressor.decode(compressed));
+    } catch (final IOException e) {
+      compressed.close();
+      throw e;
+    }
+  }
+
+  // keeps the stream of the caller open when the decoder is closed
+  private static InputStream unclosable(final InputStream stream) {
+    return new FilterInputStream(stream) {
+      @Override
+      public void close() {}
+    };
+  }
+
+  /** Returns the path of the file if the input is an uncompressed file. */
+  Optional<Path> path() {
+    try {
+      return path == null || detect(path).isPresent() ? Optional.empty() : Optional.of(path);
+    } catch (final IOException e) {
+      return Optional.empty(); // reported when reading the input
+    }
+  }
+
+  ByteSource open() throws IOException {
+    return opener.open();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
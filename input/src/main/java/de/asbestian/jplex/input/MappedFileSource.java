@@ -0,0 +1,91 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maps a file, or a region of it, into memory. Inputs larger than the window size are mapped in
+ * consecutive windows. Offsets are positions within the file.
+ *
+ * @author Sebastian Schenker
+ */
+final class MappedFileSource implements ByteSource {
+
+  static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+  private final FileChannel channel;
+  private final boolean ownsChannel;
+  private final long from;
+  private final long to;
+  private final int windowSize;
+  private long windowOffset;
+  private int windowLength;
+
+  MappedFileSource(final Path path) throws IOException {
+    this(path, DEFAULT_WINDOW_SIZE);
+  }
+
+  MappedFileSource(final Path path, final int windowSize) throws IOException {
+    this(path, 0, -1, windowSize);
+  }
+
+  /** Maps bytes [from, to) of the given file; a negative value of to denotes the end of the file. */
+  MappedFileSource(final Path path, final long from, final long to, final int windowSize)
+      throws IOException {
+    this(FileChannel.open(path, StandardOpenOption.READ), from, to, windowSize, true);
+  }
+
+  /**
+   * Maps the given channel from its current position to its end. The channel is left open on
+   * closing this source.
+   */
+  MappedFileSource(final FileChannel channel) throws IOException {
+    this(channel, channel.position(), -1, DEFAULT_WINDOW_SIZE, false);
+  }
+
+  private MappedFileSource(final FileChannel channel, final long from, final long to,
+      final int windowSize, final boolean ownsChannel) throws IOException {
+    this.channel = channel;
+    this.ownsChannel = ownsChannel;
+    this.from = from;
+    this.to = to < 0 ? channel.size() : to;
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public ByteBuffer first() throws IOException {
+    return map(from);
+  }
+
+  @Override
+  public long offset() {
+    return windowOffset;
+  }
+
+  @Override
+  public boolean hasMore() {
+    return windowOffset + windowLength < to;
+  }
+
+  @Override
+  public ByteBuffer advance(final int from) throws IOException {
+    return map(windowOffset + from);
+  }
+
+  private ByteBuffer map(final long offset) throws IOException {
+    windowOffset = offset;
+    windowLength = (int) Math.min(windowSize, to - offset);
+    return channel.map(MapMode.READ_ONLY, offset, windowLength);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (ownsChannel) {
+      channel.close();
+    }
+  }
+}
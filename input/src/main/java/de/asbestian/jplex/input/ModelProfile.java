@@ -0,0 +1,406 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import de.asbestian.jplex.input.VariableStore.VariableStoreBuilder;
+import java.util.Arrays;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+/**
+ * Figures describing the structure of a model: its size and density, how the nonzeros are spread
+ * over rows and columns, the magnitudes of its numbers, and the kinds of its rows and variables.
+ * The profile is collected by a {@link ModelProfileBuilder} listening to an {@link LpParser}, i.e.
+ * while the input is read and without building the model.
+ *
+ * <p>As in {@link ConstraintMatrix}, coefficients of a variable occurring several times within a
+ * row are summed up and count as one nonzero. Histograms have one bucket for length 0 and one
+ * bucket per power of two; bucket k > 0 counts the lengths in [2^(k-1), 2^k).
+ *
+ * @author Sebastian Schenker
+ */
+public final class ModelProfile {
+
+  /** The smallest and largest absolute value of a set of nonzero numbers. */
+  public record Range(double min, double max) {
+
+    static final Range EMPTY = new Range(Double.POSITIVE_INFINITY, 0);
+
+    public boolean isEmpty() {
+      return min > max;
+    }
+
+    Range with(final double value) {
+      final double magnitude = Math.abs(value);
+      if (magnitude == 0 || Double.isInfinite(magnitude)) {
+        return this;
+      }
+      return new Range(Math.min(min, magnitude), Math.max(max, magnitude));
+    }
+  }
+
+  private final int rows;
+  private final int columns;
+  private final long nonzeros;
+  private final long objectiveNonzeros;
+  private final int[] rowsBySense;
+  private final int[] rowHistogram;
+  private final int[] columnHistogram;
+  private final int singletonRows;
+  private final int singletonColumns;
+  private final int emptyColumns;
+  private final Range coefficientRange;
+  private final Range objectiveRange;
+  private final Range rhsRange;
+  private final Range boundRange;
+  private final int[] variablesByType;
+  private final int freeVariables;
+  private final int fixedVariables;
+  private final int boxedVariables;
+  private final int lowerBoundedVariables;
+  private final int upperBoundedVariables;
+
+  private ModelProfile(final ModelProfileBuilder builder) {
+    final var variables = builder.variableBuilder.build();
+    final int[] columnLength = Arrays.copyOf(builder.columnLength, variables.size());
+    this.rows = builder.rows;
+    this.columns = variables.size();
+    this.nonzeros = builder.nonzeros;
+    this.objectiveNonzeros = builder.objectiveNonzeros;
+    this.rowsBySense = builder.rowsBySense.clone();
+    this.rowHistogram = Arrays.copyOf(builder.rowHistogram, lastBucket(builder.rowHistogram));
+    this.singletonRows = builder.singletonRows;
+    this.coefficientRange = builder.coefficientRange;
+    this.objectiveRange = builder.objectiveRange;
+    this.rhsRange = builder.rhsRange;
+    final int[] histogram = new int[Integer.SIZE + 1];
+    int singletons = 0;
+    int empty = 0;
+    for (final int length : columnLength) {
+      ++histogram[bucket(length)];
+      singletons += length == 1 ? 1 : 0;
+      empty += length == 0 ? 1 : 0;
+    }
+    this.columnHistogram = Arrays.copyOf(histogram, lastBucket(histogram));
+    this.singletonColumns = singletons;
+    this.emptyColumns = empty;
+    this.variablesByType = new int[VariableType.values().length];
+    var bounds = Range.EMPTY;
+    int free = 0;
+    int fixed = 0;
+    int boxed = 0;
+    int lower = 0;
+    int upper = 0;
+    final double[] lb = variables.lb();
+    final double[] ub = variables.ub();
+    for (int j = 0; j < columns; ++j) {
+      ++variablesByType[variables.type()[j]];
+      bounds = bounds.with(lb[j]).with(ub[j]);
+      final boolean hasLower = lb[j] != Double.NEGATIVE_INFINITY;
+      final boolean hasUpper = ub[j] != Double.POSITIVE_INFINITY;
+      if (!hasLower && !hasUpper) {
+        ++free;
+      } else if (lb[j] == ub[j]) {
+        ++fixed;
+      } else if (hasLower && hasUpper) {
+        ++boxed;
+      } else if (hasLower) {
+        ++lower;
+      } else {
+        ++upper;
+      }
+    }
+    this.boundRange = bounds;
+    this.freeVariables = free;
+    this.fixedVariables = fixed;
+    this.boxedVariables = boxed;
+    this.lowerBoundedVariables = lower;
+    this.upperBoundedVariables = upper;
+  }
+
+  // returns the histogram bucket holding the given length
+  static int bucket(final int length) {
+    return Integer.SIZE - Integer.numberOfLeadingZeros(length);
+  }
+
+  // returns the number of buckets up to and including the last non-empty one
+  private static int lastBucket(final int[] histogram) {
+    int last = histogram.length;
+    while (last > 0 && histogram[last - 1] == 0) {
+      --last;
+    }
+    return last;
+  }
+
+  /** Returns the smallest length counted by the given bucket of a histogram. */
+  public static int bucketMin(final int bucket) {
+    return bucket == 0 ? 0 : 1 << (bucket - 1);
+  }
+
+  /** Returns the largest length counted by the given bucket of a histogram. */
+  public static int bucketMax(final int bucket) {
+    return bucket == 0 ? 0 : (int) ((1L << bucket) - 1);
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int columns() {
+    return columns;
+  }
+
+  /** Returns the number of nonzeros of the constraint matrix. */
+  public long nonzeros() {
+    return nonzeros;
+  }
+
+  /** Returns the number of nonzeros of all objectives. */
+  public long objectiveNonzeros() {
+    return objectiveNonzeros;
+  }
+
+  /** Returns the share of the entries of the constraint matrix which are nonzero. */
+  public double density() {
+    return rows == 0 || columns == 0 ? 0 : nonzeros / ((double) rows * columns);
+  }
+
+  public int rows(final ConstraintSense sense) {
+    return rowsBySense[sense.ordinal()];
+  }
+
+  /** Returns the histogram of the number of nonzeros per row. */
+  public int[] rowHistogram() {
+    return rowHistogram.clone();
+  }
+
+  /** Returns the histogram of the number of nonzeros per column. */
+  public int[] columnHistogram() {
+    return columnHistogram.clone();
+  }
+
+  public int singletonRows() {
+    return singletonRows;
+  }
+
+  public int singletonColumns() {
+    return singletonColumns;
+  }
+
+  /** Returns the number of variables not occurring in any constraint. */
+  public int emptyColumns() {
+    return emptyColumns;
+  }
+
+  public Range coefficientRange() {
+    return coefficientRange;
+  }
+
+  public Range objectiveRange() {
+    return objectiveRange;
+  }
+
+  public Range rhsRange() {
+    return rhsRange;
+  }
+
+  /** Returns the range of the finite nonzero variable bounds. */
+  public Range boundRange() {
+    return boundRange;
+  }
+
+  public int variables(final VariableType type) {
+    return variablesByType[type.ordinal()];
+  }
+
+  /** Returns the number of variables with neither a lower nor an upper bound. */
+  public int freeVariables() {
+    return freeVariables;
+  }
+
+  /** Returns the number of variables whose lower bound equals the upper bound. */
+  public int fixedVariables() {
+    return fixedVariables;
+  }
+
+  /** Returns the number of variables with different finite lower and upper bounds. */
+  public int boxedVariables() {
+    return boxedVariables;
+  }
+
+  /** Returns the number of variables with a lower bound only. */
+  public int lowerBoundedVariables() {
+    return lowerBoundedVariables;
+  }
+
+  /** Returns the number of variables with an upper bound only. */
+  public int upperBoundedVariables() {
+    return upperBoundedVariables;
+  }
+
+  /** Returns the profile as a JSON object. */
+  public String toJson() {
+    final var json = new StringBuilder("{\n");
+    field(json, "rows", Integer.toString(rows));
+    field(json, "columns", Integer.toString(columns));
+    field(json, "nonzeros", Long.toString(nonzeros));
+    field(json, "objectiveNonzeros", Long.toString(objectiveNonzeros));
+    field(json, "density", number(density()));
+    field(json, "rowTypes", String.format("{\"LE\": %d, \"GE\": %d, \"EQ\": %d}",
+        rows(ConstraintSense.LE), rows(ConstraintSense.GE), rows(ConstraintSense.EQ)));
+    field(json, "rowNonzeros", histogram(rowHistogram));
+    field(json, "columnNonzeros", histogram(columnHistogram));
+    field(json, "singletonRows", Integer.toString(singletonRows));
+    field(json, "singletonColumns", Integer.toString(singletonColumns));
+    field(json, "emptyColumns", Integer.toString(emptyColumns));
+    field(json, "coefficientRange", range(coefficientRange));
+    field(json, "objectiveRange", range(objectiveRange));
+    field(json, "rhsRange", range(rhsRange));
+    field(json, "boundRange", range(boundRange));
+    field(json, "variableTypes", String.format(
+        "{\"BINARY\": %d, \"INTEGER\": %d, \"CONTINUOUS\": %d}", variables(VariableType.BINARY),
+        variables(VariableType.INTEGER), variables(VariableType.CONTINUOUS)));
+    field(json, "variableBounds", String.format(
+        "{\"free\": %d, \"fixed\": %d, \"boxed\": %d, \"lowerOnly\": %d, \"upperOnly\": %d}",
+        freeVariables, fixedVariables, boxedVariables, lowerBoundedVariables,
+        upperBoundedVariables));
+    json.setLength(json.length() - 2); // trailing comma
+    return json.append("\n}").toString();
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  private static void field(final StringBuilder json, final String name, final String value) {
+    json.append("  \"").append(name).append("\": ").append(value).append(",\n");
+  }
+
+  private static String number(final double value) {
+    return Double.isFinite(value) ? Double.toString(value) : "null";
+  }
+
+  private static String range(final Range range) {
+    return range.isEmpty() ? "null"
+        : String.format("{\"min\": %s, \"max\": %s}", number(range.min()), number(range.max()));
+  }
+
+  private static String histogram(final int[] histogram) {
+    final var json = new StringBuilder("[");
+    for (int k = 0; k < histogram.length; ++k) {
+      json.append(k == 0 ? "" : ", ").append(String.format("{\"min\": %d, \"max\": %d, \"count\": %d}",
+          bucketMin(k), bucketMax(k), histogram[k]));
+    }
+    return json.append(']').toString();
+  }
+
+  /**
+   * Collects the profile of the model reported by an {@link LpParser}; for instance
+   * {@code LpParser.parse(source, builder)} followed by {@code builder.build()}.
+   */
+  public static final class ModelProfileBuilder implements LpListener {
+
+    private final VariableStoreBuilder variableBuilder = new VariableStoreBuilder();
+    private int[] columnLength = new int[0];
+    // per column: the row it last occurred in and its position within the current row
+    private int[] lastRow = new int[0];
+    private int[] position = new int[0];
+    private int row = 0; // number of the current row; objectives count as rows, too
+    // coefficients of the current row, duplicates summed up
+    private final IntArrayList rowColumns = new IntArrayList();
+    private final DoubleArrayList rowValues = new DoubleArrayList();
+    private int rows = 0;
+    private long nonzeros = 0;
+    private long objectiveNonzeros = 0;
+    private final int[] rowsBySense = new int[ConstraintSense.values().length];
+    private final int[] rowHistogram = new int[Integer.SIZE + 1];
+    private int singletonRows = 0;
+    private Range coefficientRange = Range.EMPTY;
+    private Range objectiveRange = Range.EMPTY;
+    private Range rhsRange = Range.EMPTY;
+
+    @Override
+    public void variable(final int index, final String name) {
+      variableBuilder.add();
+      if (index >= lastRow.length) {
+        final int length = Math.max(index + 1, 2 * lastRow.length);
+        final int oldLength = lastRow.length;
+        columnLength = Arrays.copyOf(columnLength, length);
+        lastRow = Arrays.copyOf(lastRow, length);
+        Arrays.fill(lastRow, oldLength, length, -1);
+        position = Arrays.copyOf(position, length);
+      }
+    }
+
+    @Override
+    public void objectiveEnd() {
+      for (int i = 0; i < rowValues.size(); ++i) {
+        objectiveRange = objectiveRange.with(rowValues.get(i));
+      }
+      objectiveNonzeros += rowColumns.size();
+      endRow();
+    }
+
+    @Override
+    public void addend(final int variable, final double coefficient) {
+      if (lastRow[variable] == row) {
+        final int pos = position[variable];
+        rowValues.set(pos, rowValues.get(pos) + coefficient);
+      } else {
+        lastRow[variable] = row;
+        position[variable] = rowColumns.size();
+        rowColumns.add(variable);
+        rowValues.add(coefficient);
+      }
+    }
+
+    @Override
+    public void constraintEnd(final ConstraintSense sense, final double rhs) {
+      final int length = rowColumns.size();
+      for (int i = 0; i < length; ++i) {
+        ++columnLength[rowColumns.get(i)];
+        coefficientRange = coefficientRange.with(rowValues.get(i));
+      }
+      ++rows;
+      nonzeros += length;
+      ++rowsBySense[sense.ordinal()];
+      ++rowHistogram[bucket(length)];
+      singletonRows += length == 1 ? 1 : 0;
+      rhsRange = rhsRange.with(rhs);
+      endRow();
+    }
+
+    private void endRow() {
+      rowColumns.clear();
+      rowValues.clear();
+      ++row;
+    }
+
+    @Override
+    public void bound(final int variable, final ConstraintSense sense, final double value) {
+      switch (sense) {
+        case LE -> variableBuilder.setUb(variable, value);
+        case GE -> variableBuilder.setLb(variable, value);
+        case EQ -> {
+          variableBuilder.setLb(variable, value);
+          variableBuilder.setUb(variable, value);
+        }
+      }
+    }
+
+    @Override
+    public void variableType(final int variable, final VariableType type) {
+      variableBuilder.setType(variable, type);
+    }
+
+    /**
+     * Returns the profile of the model reported so far.
+     *
+     * @throws InputException if the lower bound of a variable exceeds its upper bound
+     */
+    public ModelProfile build() {
+      return new ModelProfile(this);
+    }
+  }
+}
@@ -0,0 +1,376 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.Objective.ObjectiveBuilder;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+
+/**
+ * Binary snapshot of a parsed model. A snapshot holds the variable names, bounds and types, the
+ * constraint matrix in CSR format together with the constraint names and line numbers, and the
+ * objectives. Loading a snapshot copies the arrays straight out of the memory mapped file, which
+ * is much faster than parsing the lp file again.
+ *
+ * <p>Layout, all numbers in little-endian byte order: the magic bytes JPLXSNAP, the format
+ * version, the numbers of variables, rows, nonzeros and objectives, followed by the variable names,
+ * lower bounds, upper bounds and types, the arrays rowStart, colIndex, value, rhs and sense of the
+ * constraint matrix, the constraint names and line numbers, and finally the objectives. A list of
+ * names is stored as the end offsets of the names followed by their ISO-8859-1 encoded bytes.
+ *
+ * @author Sebastian Schenker
+ */
+public final class ModelSnapshot {
+
+  static final int VERSION = 1;
+  private static final byte[] MAGIC = "JPLXSNAP".getBytes(StandardCharsets.ISO_8859_1);
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int WINDOW_SIZE = 1 << 30;
+
+  private ModelSnapshot() {}
+
+  /** Writes a snapshot of the given model to the given file, replacing any existing file. */
+  public static void write(final LpFileReader model, final Path path) throws IOException {
+    final var symbols = model.getSymbolTable();
+    final var variables = model.getVariableStore();
+    final var matrix = model.getConstraintMatrix();
+    try (final var out = new Output(FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+      out.putBytes(MAGIC);
+      out.putInt(VERSION);
+      out.putInt(symbols.size());
+      out.putInt(matrix.getNumberOfRows());
+      out.putInt(matrix.getNumberOfNonzeros());
+      out.putInt(model.getNumberOfObjectives());
+      out.putNames(symbols.names());
+      out.putDoubles(variables.lb());
+      out.putDoubles(variables.ub());
+      out.putBytes(variables.type());
+      out.putInts(matrix.rowStart());
+      out.putInts(matrix.colIndex());
+      out.putDoubles(matrix.value());
+      out.putDoubles(matrix.rhs());
+      out.putBytes(matrix.sense());
+      out.putNames(model.getConstraintNames());
+      out.putInts(model.getConstraintLineNumbers());
+      for (int i = 0; i < model.getNumberOfObjectives(); ++i) {
+        final var objective = model.getObjective(i);
+        out.putNames(Lists.immutable.of(objective.name()));
+        out.putInt(objective.sense().ordinal());
+        final int[] columns = new int[objective.coefficients().size()];
+        final double[] values = new double[columns.length];
+        final int[] next = {0};
+        objective.coefficients().forEachKeyValue((name, value) -> {
+          columns[next[0]] = symbols.indexOf(name);
+          values[next[0]++] = value;
+        });
+        out.putInt(columns.length);
+        out.putInts(columns);
+        out.putDoubles(values);
+      }
+    }
+  }
+
+  /**
+   * Loads the model held by the given snapshot. All counts, indices and enum ordinals are checked,
+   * so that a truncated or otherwise corrupt snapshot is rejected rather than loaded.
+   *
+   * @throws InputException if the file is not a valid snapshot of the current format version
+   */
+  public static LpFileReader read(final Path path) throws IOException {
+    try (final var in = new Input(FileChannel.open(path, StandardOpenOption.READ))) {
+      final byte[] magic = in.getBytes(MAGIC.length);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new InputException(String.format("%s is not a model snapshot.", path));
+      }
+      final int version = in.getInt();
+      if (version != VERSION) {
+        throw new InputException(String.format("Unsupported snapshot version %d.", version));
+      }
+      final int numberOfVariables = in.getInt();
+      final int numberOfRows = in.getInt();
+      final int numberOfNonzeros = in.getInt();
+      final int numberOfObjectives = in.getInt();
+      if (numberOfVariables < 0 || numberOfRows < 0 || numberOfNonzeros < 0
+          || numberOfObjectives < 0) {
+        throw corrupt("negative count in header");
+      }
+      final var symbols = new SymbolTable();
+      for (final var name : in.getNames(numberOfVariables)) {
+        final int expected = symbols.size();
+        if (symbols.intern(name) != expected) {
+          throw new InputException(String.format("Duplicate variable name %s in snapshot.", name));
+        }
+      }
+      final double[] lb = in.getDoubles(numberOfVariables);
+      final double[] ub = in.getDoubles(numberOfVariables);
+      final byte[] types = in.getBytes(numberOfVariables);
+      checkOrdinals(types, VariableType.values().length, "variable type");
+      final var variables = new VariableStore(lb, ub, types);
+      final int[] rowStart = in.getInts(numberOfRows + 1);
+      if (rowStart[0] != 0 || rowStart[numberOfRows] != numberOfNonzeros) {
+        throw corrupt("row starts do not match the number of nonzeros");
+      }
+      for (int i = 0; i < numberOfRows; ++i) {
+        if (rowStart[i] > rowStart[i + 1]) {
+          throw corrupt("decreasing row starts");
+        }
+      }
+      final int[] colIndex = in.getInts(numberOfNonzeros);
+      checkColumns(colIndex, numberOfVariables);
+      final double[] value = in.getDoubles(numberOfNonzeros);
+      final double[] rhs = in.getDoubles(numberOfRows);
+      final byte[] rowSense = in.getBytes(numberOfRows);
+      checkOrdinals(rowSense, ConstraintSense.values().length, "constraint sense");
+      final var constraints =
+          new ConstraintMatrix(numberOfVariables, rowStart, colIndex, value, rhs, rowSense);
+      final var constraintNames = in.getNames(numberOfRows);
+      final int[] constraintLineNumbers = in.getInts(numberOfRows);
+      for (final int lineNumber : constraintLineNumbers) {
+        if (lineNumber <= 0) {
+          throw corrupt("non-positive line number");
+        }
+      }
+      final MutableList<Objective> objectives = Lists.mutable.empty();
+      final var senses = ObjectiveSense.values();
+      for (int i = 0; i < numberOfObjectives; ++i) {
+        final var name = in.getNames(1).getFirst();
+        final int ordinal = in.getInt();
+        if (ordinal < 0 || ordinal >= senses.length) {
+          throw corrupt("invalid objective sense");
+        }
+        final var sense = senses[ordinal];
+        final int size = in.getInt();
+        final int[] columns = in.getInts(size);
+        checkColumns(columns, numberOfVariables);
+        final double[] values = in.getDoubles(size);
+        final var objective = new ObjectiveBuilder().setName(name).setSense(sense);
+        for (int k = 0; k < size; ++k) {
+          objective.addCoefficient(symbols.name(columns[k]), values[k]);
+        }
+        objectives.add(objective.build());
+      }
+      return new LpFileReader(objectives.toImmutable(), constraints, constraintNames,
+          constraintLineNumbers, variables, symbols);
+    }
+  }
+
+  private static InputException corrupt(final String reason) {
+    return new InputException(String.format("Corrupt snapshot: %s.", reason));
+  }
+
+  private static void checkOrdinals(final byte[] ordinals, final int bound, final String what) {
+    for (final byte ordinal : ordinals) {
+      if (ordinal < 0 || ordinal >= bound) {
+        throw corrupt("invalid " + what);
+      }
+    }
+  }
+
+  private static void checkColumns(final int[] columns, final int numberOfColumns) {
+    for (final int column : columns) {
+      if (column < 0 || column >= numberOfColumns) {
+        throw corrupt("column index out of range");
+      }
+    }
+  }
+
+  // buffered little-endian writer
+  private static final class Output implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer =
+        ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    Output(final FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void putInt(final int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    void putBytes(final byte[] values) throws IOException {
+      for (int from = 0; from < values.length; ) {
+        ensure(1);
+        final int length = Math.min(values.length - from, buffer.remaining());
+        buffer.put(values, from, length);
+        from += length;
+      }
+    }
+
+    void putInts(final int[] values) throws IOException {
+      for (int from = 0; from < values.length; ) {
+        ensure(Integer.BYTES);
+        final int length = Math.min(values.length - from, buffer.remaining() / Integer.BYTES);
+        buffer.asIntBuffer().put(values, from, length);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        from += length;
+      }
+    }
+
+    void putDoubles(final double[] values) throws IOException {
+      for (int from = 0; from < values.length; ) {
+        ensure(Double.BYTES);
+        final int length = Math.min(values.length - from, buffer.remaining() / Double.BYTES);
+        buffer.asDoubleBuffer().put(values, from, length);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        from += length;
+      }
+    }
+
+    void putNames(final ImmutableList<String> names) throws IOException {
+      final byte[][] encoded = new byte[names.size()][];
+      final int[] ends = new int[names.size()];
+      int end = 0;
+      for (int i = 0; i < encoded.length; ++i) {
+        encoded[i] = names.get(i).getBytes(StandardCharsets.ISO_8859_1);
+        end += encoded[i].length;
+        ends[i] = end;
+      }
+      putInts(ends);
+      for (final byte[] name : encoded) {
+        putBytes(name);
+      }
+    }
+
+    private void ensure(final int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+
+  // little-endian reader mapping the file in consecutive windows
+  private static final class Input implements Closeable {
+
+    private final FileChannel channel;
+    private final long size;
+    private ByteBuffer window;
+    private long windowOffset;
+
+    Input(final FileChannel channel) throws IOException {
+      this.channel = channel;
+      this.size = channel.size();
+      map(0);
+    }
+
+    int getInt() throws IOException {
+      ensure(Integer.BYTES);
+      return window.getInt();
+    }
+
+    byte[] getBytes(final int length) throws IOException {
+      checkLength(length, Byte.BYTES);
+      final byte[] values = new byte[length];
+      for (int from = 0; from < length; ) {
+        ensure(1);
+        final int count = Math.min(length - from, window.remaining());
+        window.get(values, from, count);
+        from += count;
+      }
+      return values;
+    }
+
+    int[] getInts(final int length) throws IOException {
+      checkLength(length, Integer.BYTES);
+      final int[] values = new int[length];
+      for (int from = 0; from < length; ) {
+        ensure(Integer.BYTES);
+        final int count = Math.min(length - from, window.remaining() / Integer.BYTES);
+        window.asIntBuffer().get(values, from, count);
+        window.position(window.position() + count * Integer.BYTES);
+        from += count;
+      }
+      return values;
+    }
+
+    double[] getDoubles(final int length) throws IOException {
+      checkLength(length, Double.BYTES);
+      final double[] values = new double[length];
+      for (int from = 0; from < length; ) {
+        ensure(Double.BYTES);
+        final int count = Math.min(length - from, window.remaining() / Double.BYTES);
+        window.asDoubleBuffer().get(values, from, count);
+        window.position(window.position() + count * Double.BYTES);
+        from += count;
+      }
+      return values;
+    }
+
+    ImmutableList<String> getNames(final int count) throws IOException {
+      final int[] ends = getInts(count);
+      for (int i = 0; i < count; ++i) {
+        if (ends[i] < (i == 0 ? 0 : ends[i - 1])) {
+          throw corrupt("decreasing name offsets");
+        }
+      }
+      final byte[] bytes = getBytes(count == 0 ? 0 : ends[count - 1]);
+      final String[] names = new String[count];
+      for (int i = 0; i < count; ++i) {
+        final int begin = i == 0 ? 0 : ends[i - 1];
+        names[i] = new String(bytes, begin, ends[i] - begin, StandardCharsets.ISO_8859_1);
+      }
+      return Lists.immutable.of(names);
+    }
+
+    // rejects lengths which are negative or exceed the rest of the file before allocating
+    private void checkLength(final int length, final int elementBytes) {
+      if (length < 0 || (long) length * elementBytes > size - windowOffset - window.position()) {
+        throw corrupt("length exceeds file");
+      }
+    }
+
+    // makes sure the window holds at least the given number of bytes
+    private void ensure(final int bytes) throws IOException {
+      if (window.remaining() < bytes) {
+        final long position = windowOffset + window.position();
+        if (size - position < bytes) {
+          throw new InputException("Unexpected end of snapshot.");
+        }
+        map(position);
+      }
+    }
+
+    private void map(final long offset) throws IOException {
+      windowOffset = offset;
+      window = channel.map(MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset))
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,521 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.Objective.ObjectiveBuilder;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import de.asbestian.jplex.input.VariableStore.VariableStoreBuilder;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads input files given in MPS format into the same model as {@link LpFileReader}. Supported
+ * are the sections NAME, OBJSENSE, ROWS, COLUMNS, RHS, BOUNDS and ENDATA, integer markers, and
+ * the bound types UP, LO, FX, FR, MI, PL, BV, LI and UI. Lines starting with an asterisk are
+ * comments.
+ *
+ * <p>The first N row is the objective; further N rows are dropped. Since MPS lists the matrix
+ * column by column, the coefficients are collected in column-major order and transposed into the
+ * rows of the {@link ConstraintMatrix} in a single counting pass. The entries of each column must
+ * be contiguous. Constraints are numbered in the order of the ROWS section, variables in the order
+ * of the COLUMNS section; the line number of a constraint is the line of its ROWS entry.
+ *
+ * @author Sebastian Schenker
+ */
+public final class MpsFileReader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MpsFileReader.class);
+
+  /** The two layouts of MPS data lines. */
+  public enum MpsFormat {
+    /** Fields are separated by white space; names must not contain any. */
+    FREE,
+    /** Fields occupy the columns 2-3, 5-12, 15-22, 25-36, 40-47 and 50-61; names may hold spaces. */
+    FIXED
+  }
+
+  private enum Section {
+    NAME, OBJSENSE, ROWS, COLUMNS, RHS, RANGES, BOUNDS, ENDATA;
+
+    /** Returns the section whose name is held by [from, to) or null if there is none. */
+    static Section of(final LpLexer lexer, final int from, final int to) {
+      for (final var section : values()) {
+        if (lexer.equalsIgnoreCase(from, to, section.name())) {
+          return section;
+        }
+      }
+      return null;
+    }
+  }
+
+  // first and last column of the fields of fixed MPS, counting from 1
+  private static final int[] FIXED_COLUMNS = {2, 3, 5, 12, 15, 22, 25, 36, 40, 47, 50, 61};
+  private static final int FIELDS = 6;
+  // row types besides the ordinals of ConstraintSense
+  private static final byte OBJECTIVE = -1;
+  private static final byte DROPPED = -2;
+
+  private final LpLexer lexer;
+  private final MpsFormat format;
+  // start and end of fields 1 to 6 of the current data line at positions 2k and 2k + 1
+  private final int[] field = new int[2 * (FIELDS + 1)];
+  // start and end of the white space separated tokens of the current line in free format
+  private final int[] tokens = new int[2 * FIELDS];
+  private Section section = null;
+  private ObjectiveSense objectiveSense = ObjectiveSense.MIN;
+  private String objectiveName = null;
+  private final ObjectiveBuilder objective = new ObjectiveBuilder();
+  private final SymbolTable rows = new SymbolTable();
+  private final ByteArrayList rowType = new ByteArrayList();
+  private final IntArrayList rowLineNumbers = new IntArrayList();
+  private final SymbolTable symbols = new SymbolTable();
+  private final VariableStoreBuilder variables = new VariableStoreBuilder();
+  private final BitSet lowerBoundSet = new BitSet();
+  private boolean inIntegerMarker = false;
+  // coefficients in column-major order; column j occupies [columnStart[j], columnStart[j + 1])
+  private final IntArrayList columnStart = new IntArrayList();
+  private final IntArrayList rowIndex = new IntArrayList();
+  private final DoubleArrayList value = new DoubleArrayList();
+  // per row: the column it last occurred in and the position of that coefficient
+  private int[] lastColumn;
+  private int[] position;
+  private double[] rhs;
+  private String rhsSet = null;
+  private String boundSet = null;
+
+  private MpsFileReader(final LpLexer lexer, final MpsFormat format) {
+    this.lexer = lexer;
+    this.format = format;
+  }
+
+  /**
+   * Reads the given file in free MPS format.
+   *
+   * @throws InputException if the file is not a valid MPS file
+   */
+  public static LpFileReader read(final String path) throws IOException {
+    return read(LpSource.of(Path.of(path)), MpsFormat.FREE);
+  }
+
+  /**
+   * Reads the given source in the given MPS format; see {@link LpSource} for how each kind of
+   * source is read.
+   *
+   * @throws InputException if the source does not hold a valid MPS file
+   */
+  public static LpFileReader read(final LpSource source, final MpsFormat format)
+      throws IOException {
+    try (final LpLexer lexer = LpLexer.withoutComments(source.open())) {
+      final var reader = new MpsFileReader(lexer, format);
+      reader.readSections();
+      return reader.build();
+    }
+  }
+
+  private void readSections() throws IOException {
+    while (lexer.nextProperLine()) {
+      if (lexer.byteAt(lexer.rawLineStart()) == '*') {
+        continue;
+      }
+      if (lexer.lineStart() == lexer.rawLineStart()) {
+        readHeader();
+        if (section == Section.ENDATA) {
+          return;
+        }
+        continue;
+      }
+      if (section == null) {
+        throw new InputException(String.format("Line %d: data line outside of any section.",
+            lexer.lineNumber()));
+      }
+      switch (section) {
+        case NAME, ENDATA -> throw new InputException(String.format(
+            "Line %d: unexpected data line %s.", lexer.lineNumber(), lexer.line()));
+        case OBJSENSE -> readObjectiveSense(lexer.lineStart(), lexer.lineEnd());
+        case ROWS -> readRow();
+        case COLUMNS -> readColumn();
+        case RHS -> readRhs();
+        case RANGES -> throw new InputException(String.format(
+            "Line %d: ranged rows are not supported.", lexer.lineNumber()));
+        case BOUNDS -> readBound();
+      }
+    }
+    throw new InputException(String.format("Line %d: unexpected end of file.", lexer.lineNumber()));
+  }
+
+  private void readHeader() {
+    final int end = lexer.skipNonWhitespace(lexer.lineStart(), lexer.lineEnd());
+    final var next = Section.of(lexer, lexer.lineStart(), end);
+    if (next == null) {
+      throw new InputException(String.format("Line %d: unsupported section %s.",
+          lexer.lineNumber(), lexer.string(lexer.lineStart(), end)));
+    }
+    if (section != null && next.ordinal() <= section.ordinal()) {
+      throw new InputException(String.format("Line %d: section %s out of order.",
+          lexer.lineNumber(), next));
+    }
+    if (next.ordinal() > Section.ROWS.ordinal() && rhs == null) {
+      startColumns();
+    }
+    section = next;
+    LOGGER.debug("Switching to section {}.", section);
+    final int rest = lexer.skipWhitespace(end, lexer.lineEnd());
+    if (section == Section.OBJSENSE && rest < lexer.lineEnd()) { // OBJSENSE MAX
+      readObjectiveSense(rest, lexer.lineEnd());
+    }
+  }
+
+  private void readObjectiveSense(final int from, final int to) {
+    final var sense = lexer.string(from, to);
+    if (ObjectiveSense.MAX.rep().anyMatch(sense::equalsIgnoreCase)) {
+      objectiveSense = ObjectiveSense.MAX;
+    } else if (ObjectiveSense.MIN.rep().anyMatch(sense::equalsIgnoreCase)) {
+      objectiveSense = ObjectiveSense.MIN;
+    } else {
+      throw new InputException(String.format("Line %d: unrecognised optimisation direction %s.",
+          lexer.lineNumber(), sense));
+    }
+  }
+
+  /**
+   * Splits the current data line into fields 1 to 6. In free format, the fields the line starts
+   * with depend on the section; optional set names of the RHS and BOUNDS sections are recognised
+   * by the number of fields.
+   */
+  private void readFields() {
+    Arrays.fill(field, lexer.lineEnd());
+    if (format == MpsFormat.FIXED) {
+      final int lineStart = lexer.rawLineStart();
+      for (int k = 1; k <= FIELDS; ++k) {
+        final int from = Math.min(lineStart + FIXED_COLUMNS[2 * k - 2] - 1, lexer.lineEnd());
+        final int to = Math.min(lineStart + FIXED_COLUMNS[2 * k - 1], lexer.lineEnd());
+        field[2 * k] = lexer.skipWhitespace(from, to);
+        field[2 * k + 1] = lexer.trimEnd(field[2 * k], to);
+      }
+      return;
+    }
+    int count = 0;
+    int pos = lexer.lineStart();
+    while (pos < lexer.lineEnd()) {
+      if (count == FIELDS) {
+        throw new InputException(String.format("Line %d: too many fields in %s.",
+            lexer.lineNumber(), lexer.line()));
+      }
+      tokens[2 * count] = pos;
+      pos = lexer.skipNonWhitespace(pos, lexer.lineEnd());
+      tokens[2 * count + 1] = pos;
+      ++count;
+      pos = lexer.skipWhitespace(pos, lexer.lineEnd());
+    }
+    final int first = switch (section) {
+      case ROWS -> 1;
+      case RHS, RANGES -> count % 2 == 1 ? 2 : 3;
+      case BOUNDS -> {
+        field[2] = tokens[0];
+        field[3] = tokens[1];
+        yield count == (needsValue(tokens[0], tokens[1]) ? 4 : 3) ? 2 : 3;
+      }
+      default -> 2;
+    };
+    final int skipped = section == Section.BOUNDS ? 1 : 0;
+    for (int t = skipped; t < count; ++t) {
+      final int k = first + t - skipped;
+      if (k > FIELDS) {
+        throw new InputException(String.format("Line %d: too many fields in %s.",
+            lexer.lineNumber(), lexer.line()));
+      }
+      field[2 * k] = tokens[2 * t];
+      field[2 * k + 1] = tokens[2 * t + 1];
+    }
+  }
+
+  private boolean isEmpty(final int k) {
+    return field[2 * k] == field[2 * k + 1];
+  }
+
+  private boolean fieldEquals(final int k, final String str) {
+    return lexer.equalsIgnoreCase(field[2 * k], field[2 * k + 1], str);
+  }
+
+  private String fieldString(final int k) {
+    return lexer.string(field[2 * k], field[2 * k + 1]);
+  }
+
+  private double fieldValue(final int k) {
+    if (isEmpty(k)) {
+      throw new InputException(String.format("Line %d: missing value in %s.", lexer.lineNumber(),
+          lexer.line()));
+    }
+    try {
+      return NumberParser.parse(lexer.window(), field[2 * k], field[2 * k + 1]);
+    } catch (final NumberFormatException e) {
+      throw new InputException(String.format("Line %d: %s is not a valid number.",
+          lexer.lineNumber(), fieldString(k)));
+    }
+  }
+
+  private int rowOf(final int k) {
+    final int row = rows.indexOf(lexer.window(), field[2 * k], field[2 * k + 1]);
+    if (row == -1) {
+      throw new InputException(String.format("Line %d: unknown row %s.", lexer.lineNumber(),
+          fieldString(k)));
+    }
+    return row;
+  }
+
+  private void readRow() {
+    readFields();
+    if (isEmpty(2)) {
+      throw new InputException(String.format("Line %d: row without name.", lexer.lineNumber()));
+    }
+    final int row = rows.intern(lexer.window(), field[4], field[5]);
+    if (row != rowType.size()) {
+      throw new InputException(String.format("Line %d: duplicate row %s.", lexer.lineNumber(),
+          fieldString(2)));
+    }
+    final byte type;
+    if (fieldEquals(1, "N")) {
+      if (objectiveName == null) {
+        objectiveName = fieldString(2);
+        type = OBJECTIVE;
+      } else {
+        LOGGER.debug("Dropping free row {}.", fieldString(2));
+        type = DROPPED;
+      }
+    } else if (fieldEquals(1, "L")) {
+      type = (byte) ConstraintSense.LE.ordinal();
+    } else if (fieldEquals(1, "G")) {
+      type = (byte) ConstraintSense.GE.ordinal();
+    } else if (fieldEquals(1, "E")) {
+      type = (byte) ConstraintSense.EQ.ordinal();
+    } else {
+      throw new InputException(String.format("Line %d: unknown row type %s.", lexer.lineNumber(),
+          fieldString(1)));
+    }
+    rowType.add(type);
+    rowLineNumbers.add(lexer.lineNumber());
+  }
+
+  private void startColumns() {
+    lastColumn = new int[rowType.size()];
+    Arrays.fill(lastColumn, -1);
+    position = new int[rowType.size()];
+    rhs = new double[rowType.size()];
+  }
+
+  private void readColumn() {
+    readFields();
+    if (fieldEquals(3, "'MARKER'")) {
+      final int k = isEmpty(4) ? 5 : 4;
+      if (fieldEquals(k, "'INTORG'")) {
+        inIntegerMarker = true;
+      } else if (fieldEquals(k, "'INTEND'")) {
+        inIntegerMarker = false;
+      } else {
+        throw new InputException(String.format("Line %d: unknown marker %s.", lexer.lineNumber(),
+            fieldString(k)));
+      }
+      return;
+    }
+    final int column = symbols.intern(lexer.window(), field[4], field[5]);
+    if (column == variables.size()) { // first appearance
+      variables.add();
+      if (inIntegerMarker) {
+        variables.setType(column, VariableType.INTEGER);
+      }
+      columnStart.add(rowIndex.size());
+    } else if (column != variables.size() - 1) {
+      throw new InputException(String.format("Line %d: entries of column %s are not contiguous.",
+          lexer.lineNumber(), symbols.name(column)));
+    }
+    for (int k = 3; k <= 5; k += 2) {
+      if (k == 3 || !isEmpty(k)) {
+        addCoefficient(rowOf(k), column, fieldValue(k + 1));
+      }
+    }
+  }
+
+  private void addCoefficient(final int row, final int column, final double coefficient) {
+    switch (rowType.get(row)) {
+      case OBJECTIVE -> objective.addCoefficient(symbols.name(column), coefficient);
+      case DROPPED -> { }
+      default -> {
+        if (lastColumn[row] == column) {
+          final int pos = position[row];
+          value.set(pos, value.get(pos) + coefficient);
+        } else {
+          lastColumn[row] = column;
+          position[row] = rowIndex.size();
+          rowIndex.add(row);
+          value.add(coefficient);
+        }
+      }
+    }
+  }
+
+  private void readRhs() {
+    readFields();
+    if (!isSelected(isEmpty(2) ? "" : fieldString(2), rhsSet)) {
+      return;
+    }
+    rhsSet = isEmpty(2) ? "" : fieldString(2);
+    for (int k = 3; k <= 5; k += 2) {
+      if (k == 3 || !isEmpty(k)) {
+        final int row = rowOf(k);
+        final double rowRhs = fieldValue(k + 1);
+        if (rowType.get(row) >= 0) {
+          rhs[row] = rowRhs;
+        } else if (rowType.get(row) == OBJECTIVE) {
+          LOGGER.warn("Line {}: ignoring objective constant {}.", lexer.lineNumber(), -rowRhs);
+        }
+      }
+    }
+  }
+
+  // only the first set of right-hand sides and of bounds is read
+  private boolean isSelected(final String set, final String selected) {
+    if (selected == null || selected.equals(set)) {
+      return true;
+    }
+    LOGGER.debug("Line {}: ignoring set {}.", lexer.lineNumber(), set);
+    return false;
+  }
+
+  private boolean needsValue(final int from, final int to) {
+    return !(lexer.equalsIgnoreCase(from, to, "FR") || lexer.equalsIgnoreCase(from, to, "MI")
+        || lexer.equalsIgnoreCase(from, to, "PL") || lexer.equalsIgnoreCase(from, to, "BV"));
+  }
+
+  private void readBound() {
+    readFields();
+    if (!isSelected(isEmpty(2) ? "" : fieldString(2), boundSet)) {
+      return;
+    }
+    boundSet = isEmpty(2) ? "" : fieldString(2);
+    final int column = symbols.indexOf(lexer.window(), field[6], field[7]);
+    if (column == -1) {
+      throw new InputException(String.format("Line %d: unknown variable name %s", lexer.lineNumber(),
+          fieldString(3)));
+    }
+    if (fieldEquals(1, "UP")) {
+      setUpperBound(column, fieldValue(4));
+    } else if (fieldEquals(1, "LO")) {
+      setLowerBound(column, fieldValue(4));
+    } else if (fieldEquals(1, "FX")) {
+      final double bound = fieldValue(4);
+      setLowerBound(column, bound);
+      variables.setUb(column, bound);
+    } else if (fieldEquals(1, "FR")) {
+      setLowerBound(column, Double.NEGATIVE_INFINITY);
+      variables.setUb(column, Double.POSITIVE_INFINITY);
+    } else if (fieldEquals(1, "MI")) {
+      setLowerBound(column, Double.NEGATIVE_INFINITY);
+    } else if (fieldEquals(1, "PL")) {
+      variables.setUb(column, Double.POSITIVE_INFINITY);
+    } else if (fieldEquals(1, "BV")) {
+      variables.setType(column, VariableType.BINARY);
+    } else if (fieldEquals(1, "LI")) {
+      variables.setType(column, VariableType.INTEGER);
+      setLowerBound(column, fieldValue(4));
+    } else if (fieldEquals(1, "UI")) {
+      variables.setType(column, VariableType.INTEGER);
+      setUpperBound(column, fieldValue(4));
+    } else {
+      throw new InputException(String.format("Line %d: unsupported bound type %s.",
+          lexer.lineNumber(), fieldString(1)));
+    }
+  }
+
+  private void setLowerBound(final int column, final double bound) {
+    variables.setLb(column, bound);
+    lowerBoundSet.set(column);
+  }
+
+  // as usual for MPS, a negative upper bound of a variable without lower bound frees the latter
+  private void setUpperBound(final int column, final double bound) {
+    if (bound < 0 && !lowerBoundSet.get(column)) {
+      LOGGER.warn("Line {}: negative upper bound of {} sets its lower bound to -infinity.",
+          lexer.lineNumber(), symbols.name(column));
+      setLowerBound(column, Double.NEGATIVE_INFINITY);
+    }
+    variables.setUb(column, bound);
+  }
+
+  private LpFileReader build() {
+    if (rhs == null) {
+      startColumns(); // no section following ROWS
+    }
+    // numbers of the constraint rows, in order of the ROWS section; -1 for other rows
+    final int[] constraint = new int[rowType.size()];
+    final int[] length = new int[rowType.size()];
+    for (int p = 0; p < rowIndex.size(); ++p) {
+      ++length[rowIndex.get(p)];
+    }
+    final MutableList<String> names = Lists.mutable.empty();
+    final IntArrayList lineNumbers = new IntArrayList();
+    final DoubleArrayList constraintRhs = new DoubleArrayList();
+    final ByteArrayList sense = new ByteArrayList();
+    final IntArrayList rowStart = IntArrayList.newListWith(0);
+    for (int row = 0; row < rowType.size(); ++row) {
+      constraint[row] = -1;
+      if (rowType.get(row) < 0) {
+        continue;
+      }
+      if (length[row] == 0) {
+        dropEmptyRow(row);
+        continue;
+      }
+      constraint[row] = names.size();
+      names.add(rows.name(row));
+      lineNumbers.add(rowLineNumbers.get(row));
+      constraintRhs.add(rhs[row]);
+      sense.add(rowType.get(row));
+      rowStart.add(rowStart.getLast() + length[row]);
+    }
+    // transposes the column-major coefficients into rows; columns end up ordered within each row
+    final int[] start = rowStart.toArray();
+    final int[] next = Arrays.copyOf(start, start.length - 1);
+    final int[] colIndex = new int[rowIndex.size()];
+    final double[] values = new double[rowIndex.size()];
+    columnStart.add(rowIndex.size());
+    for (int column = 0; column < variables.size(); ++column) {
+      for (int p = columnStart.get(column); p < columnStart.get(column + 1); ++p) {
+        final int q = next[constraint[rowIndex.get(p)]]++;
+        colIndex[q] = column;
+        values[q] = value.get(p);
+      }
+    }
+    final var matrix = new ConstraintMatrix(variables.size(), start, colIndex, values,
+        constraintRhs.toArray(), sense.toArray());
+    final var objectives = objectiveName == null
+        ? Lists.immutable.<Objective>empty()
+        : Lists.immutable.of(objective.setName(objectiveName).setSense(objectiveSense).build());
+    return new LpFileReader(objectives, matrix, names.toImmutable(), lineNumbers.toArray(),
+        variables.build(), symbols);
+  }
+
+  // the model has no empty constraints; satisfied ones are dropped
+  private void dropEmptyRow(final int row) {
+    final double rowRhs = rhs[row];
+    final boolean satisfied = switch (ConstraintSense.values()[rowType.get(row)]) {
+      case LE -> 0 <= rowRhs;
+      case GE -> 0 >= rowRhs;
+      case EQ -> 0 == rowRhs;
+    };
+    if (!satisfied) {
+      throw new InputException(String.format("Line %d: row %s without coefficients cannot be "
+          + "satisfied.", rowLineNumbers.get(row), rows.name(row)));
+    }
+    LOGGER.warn("Line {}: dropping row {} without coefficients.", rowLineNumbers.get(row),
+        rows.name(row));
+  }
+}
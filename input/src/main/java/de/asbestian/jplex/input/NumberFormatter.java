@@ -0,0 +1,88 @@
+package de.asbestian.jplex.input;
+
+/**
+ * Formats doubles directly into ASCII bytes, as the counterpart of {@link NumberParser}. Numbers
+ * with a short decimal representation, which make up most of the data of typical models, are
+ * written in fixed-point notation with the fewest fraction digits which read back to the same
+ * double. All other numbers are written as by {@link Double#toString(double)}, which reads back
+ * exactly, too. Infinities are written as inf and -inf.
+ *
+ * @author Sebastian Schenker
+ */
+final class NumberFormatter {
+
+  /** The maximal number of bytes written for a single number. */
+  static final int MAX_LENGTH = 32;
+
+  private static final double[] EXACT_POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  // integers up to this bound are exact doubles
+  private static final double EXACT_INTEGERS = 0x1p53;
+
+  private NumberFormatter() {}
+
+  /**
+   * Writes the given number into bytes, starting at position from, and returns the position
+   * following it. At least {@link #MAX_LENGTH} bytes must be available.
+   *
+   * @throws IllegalArgumentException if the number is NaN
+   */
+  static int format(final double value, final byte[] bytes, final int from) {
+    if (Double.isNaN(value)) {
+      throw new IllegalArgumentException("NaN cannot be written.");
+    }
+    int pos = from;
+    if (Double.doubleToRawLongBits(value) < 0) { // including -0
+      bytes[pos++] = '-';
+    }
+    final double magnitude = Math.abs(value);
+    if (magnitude == Double.POSITIVE_INFINITY) {
+      bytes[pos++] = 'i';
+      bytes[pos++] = 'n';
+      bytes[pos++] = 'f';
+      return pos;
+    }
+    for (int fractionDigits = 0; fractionDigits < EXACT_POWERS_OF_TEN.length; ++fractionDigits) {
+      final double power = EXACT_POWERS_OF_TEN[fractionDigits];
+      final double scaled = Math.rint(magnitude * power);
+      if (scaled >= EXACT_INTEGERS) {
+        break;
+      }
+      // both operands are exact, so the division is rounded just as parsing the digits is
+      if (scaled / power == magnitude) {
+        return writeFixedPoint((long) scaled, fractionDigits, bytes, pos);
+      }
+    }
+    final String text = Double.toString(magnitude);
+    for (int i = 0; i < text.length(); ++i) {
+      bytes[pos++] = (byte) text.charAt(i);
+    }
+    return pos;
+  }
+
+  /** Writes the number digits * 10^-fractionDigits, with a leading zero if it is less than 1. */
+  private static int writeFixedPoint(final long digits, final int fractionDigits, final byte[] bytes,
+      final int from) {
+    final int length = Math.max(numberOfDigits(digits), fractionDigits + 1);
+    final int end = from + length + (fractionDigits > 0 ? 1 : 0);
+    int pos = end;
+    long remaining = digits;
+    for (int k = 0; k < length; ++k) {
+      if (k == fractionDigits && k > 0) {
+        bytes[--pos] = '.';
+      }
+      bytes[--pos] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return end;
+  }
+
+  private static int numberOfDigits(final long value) {
+    int digits = 1;
+    for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+      ++digits;
+    }
+    return digits;
+  }
+}
@@ -0,0 +1,225 @@
+package de.asbestian.jplex.input;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses decimal numbers directly from ASCII bytes. Results are bit-identical to
+ * {@link Double#parseDouble(String)}: numbers with at most 19 significant digits are converted
+ * exactly by Clinger's fast path or by the Eisel-Lemire algorithm; all other inputs, and the rare
+ * cases the Eisel-Lemire algorithm cannot decide, are handed to {@link Double#parseDouble(String)}.
+ * In addition, the keywords inf and infinity with optional sign are accepted, ignoring case.
+ *
+ * @author Sebastian Schenker
+ */
+final class NumberParser {
+
+  private static final int MAX_DIGITS = 19;
+  private static final int MIN_EXP10 = -348;
+  private static final int MAX_EXP10 = 347;
+  private static final double[] EXACT_POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  // 128-bit mantissas of the powers of ten from MIN_EXP10 to MAX_EXP10, normalised to have the
+  // highest bit set and rounded down
+  private static final long[] POWERS_OF_TEN_HI = new long[MAX_EXP10 - MIN_EXP10 + 1];
+  private static final long[] POWERS_OF_TEN_LO = new long[MAX_EXP10 - MIN_EXP10 + 1];
+
+  static {
+    final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    for (int e = MIN_EXP10; e <= MAX_EXP10; ++e) {
+      final BigInteger mantissa;
+      if (e >= 0) {
+        final BigInteger power = BigInteger.TEN.pow(e);
+        final int shift = power.bitLength() - 128;
+        mantissa = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+      } else {
+        final BigInteger power = BigInteger.TEN.pow(-e);
+        mantissa = BigInteger.ONE.shiftLeft(127 + power.bitLength()).divide(power);
+      }
+      POWERS_OF_TEN_HI[e - MIN_EXP10] = mantissa.shiftRight(64).longValue();
+      POWERS_OF_TEN_LO[e - MIN_EXP10] = mantissa.and(mask).longValue();
+    }
+  }
+
+  private NumberParser() {}
+
+  /**
+   * Parses the number held by bytes [from, to).
+   *
+   * @throws NumberFormatException if the bytes do not represent a number
+   */
+  static double parse(final ByteBuffer bytes, final int from, final int to) {
+    int i = from;
+    boolean negative = false;
+    if (i < to && (bytes.get(i) == '+' || bytes.get(i) == '-')) {
+      negative = bytes.get(i) == '-';
+      ++i;
+    }
+    if (i < to && (bytes.get(i) | 0x20) == 'i') {
+      if (equalsIgnoreCase(bytes, i, to, "inf") || equalsIgnoreCase(bytes, i, to, "infinity")) {
+        return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+      }
+      return fallback(bytes, from, to);
+    }
+    long mantissa = 0;
+    int exp10 = 0;
+    int significantDigits = 0;
+    int digits = 0;
+    boolean truncated = false;
+    while (i < to && LpLexer.isDigit(bytes.get(i))) {
+      final int d = bytes.get(i++) - '0';
+      ++digits;
+      if (significantDigits < MAX_DIGITS) {
+        if (mantissa != 0 || d != 0) {
+          mantissa = 10 * mantissa + d;
+          ++significantDigits;
+        }
+      } else {
+        ++exp10;
+        truncated |= d != 0;
+      }
+    }
+    if (i < to && bytes.get(i) == '.') {
+      ++i;
+      while (i < to && LpLexer.isDigit(bytes.get(i))) {
+        final int d = bytes.get(i++) - '0';
+        ++digits;
+        if (significantDigits < MAX_DIGITS) {
+          if (mantissa != 0 || d != 0) {
+            mantissa = 10 * mantissa + d;
+            ++significantDigits;
+          }
+          --exp10;
+        } else {
+          truncated |= d != 0;
+        }
+      }
+    }
+    if (digits == 0) {
+      return fallback(bytes, from, to);
+    }
+    if (i < to && (bytes.get(i) | 0x20) == 'e') {
+      ++i;
+      boolean negativeExponent = false;
+      if (i < to && (bytes.get(i) == '+' || bytes.get(i) == '-')) {
+        negativeExponent = bytes.get(i) == '-';
+        ++i;
+      }
+      if (i == to || !LpLexer.isDigit(bytes.get(i))) {
+        return fallback(bytes, from, to);
+      }
+      int exponent = 0;
+      while (i < to && LpLexer.isDigit(bytes.get(i))) {
+        if (exponent < 100_000) {
+          exponent = 10 * exponent + (bytes.get(i) - '0');
+        }
+        ++i;
+      }
+      exp10 += negativeExponent ? -exponent : exponent;
+    }
+    if (i != to || truncated) {
+      return fallback(bytes, from, to);
+    }
+    if (mantissa == 0) {
+      return negative ? -0. : 0.;
+    }
+    // the mantissa is to be read as unsigned since 19 digits may exceed Long.MAX_VALUE
+    if ((mantissa >>> 53) == 0 && exp10 >= -22 && exp10 <= 22) { // Clinger's fast path
+      final double value = exp10 < 0
+          ? mantissa / EXACT_POWERS_OF_TEN[-exp10]
+          : mantissa * EXACT_POWERS_OF_TEN[exp10];
+      return negative ? -value : value;
+    }
+    final long bits = eiselLemire(mantissa, exp10);
+    if (bits == -1) {
+      return fallback(bytes, from, to);
+    }
+    return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+  }
+
+  /**
+   * Parses the given string.
+   *
+   * @throws NumberFormatException if the string does not represent a number
+   */
+  static double parse(final String str) {
+    final byte[] bytes = str.getBytes(StandardCharsets.ISO_8859_1);
+    return parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+  }
+
+  /**
+   * Returns the bits of the double closest to mantissa * 10^exp10 for a non-zero mantissa, or -1
+   * if the result cannot be determined this way.
+   */
+  private static long eiselLemire(final long mantissa, final int exp10) {
+    if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10) {
+      return -1;
+    }
+    final int clz = Long.numberOfLeadingZeros(mantissa);
+    final long man = mantissa << clz;
+    long retExp2 = ((217706L * exp10) >> 16) + 64 + 1023 - clz;
+
+    final long powHi = POWERS_OF_TEN_HI[exp10 - MIN_EXP10];
+    final long powLo = POWERS_OF_TEN_LO[exp10 - MIN_EXP10];
+    long xHi = unsignedMultiplyHigh(man, powHi);
+    long xLo = man * powHi;
+    if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + man, man) < 0) {
+      // the product is too close to a rounding boundary; include the lower half of the power
+      final long yHi = unsignedMultiplyHigh(man, powLo);
+      final long yLo = man * powLo;
+      long mergedHi = xHi;
+      final long mergedLo = xLo + yHi;
+      if (Long.compareUnsigned(mergedLo, xLo) < 0) {
+        ++mergedHi;
+      }
+      if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0
+          && Long.compareUnsigned(yLo + man, man) < 0) {
+        return -1;
+      }
+      xHi = mergedHi;
+      xLo = mergedLo;
+    }
+
+    final long msb = xHi >>> 63;
+    long retMantissa = xHi >>> (msb + 9);
+    retExp2 -= 1 ^ msb;
+    if (xLo == 0 && (xHi & 0x1FF) == 0 && (retMantissa & 3) == 1) { // halfway ambiguity
+      return -1;
+    }
+    retMantissa += retMantissa & 1;
+    retMantissa >>>= 1;
+    if (retMantissa >>> 53 > 0) {
+      retMantissa >>>= 1;
+      ++retExp2;
+    }
+    if (retExp2 <= 0 || retExp2 >= 0x7FF) { // subnormal, infinite or NaN
+      return -1;
+    }
+    return (retExp2 << 52) | (retMantissa & 0x000F_FFFF_FFFF_FFFFL);
+  }
+
+  private static long unsignedMultiplyHigh(final long x, final long y) {
+    return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+
+  private static boolean equalsIgnoreCase(final ByteBuffer bytes, final int from, final int to,
+      final String str) {
+    if (to - from != str.length()) {
+      return false;
+    }
+    for (int i = 0; i < str.length(); ++i) {
+      if ((bytes.get(from + i) | 0x20) != str.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static double fallback(final ByteBuffer bytes, final int from, final int to) {
+    final byte[] str = new byte[to - from];
+    bytes.get(from, str);
+    return Double.parseDouble(new String(str, StandardCharsets.ISO_8859_1));
+  }
+}
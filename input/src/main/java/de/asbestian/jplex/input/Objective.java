@@ -4,14 +4,17 @@ import java.util.Objects;
 import java.util.stream.Stream;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ImmutableList;
-import org.eclipse.collections.api.map.ImmutableMap;
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.impl.map.mutable.UnifiedMap;
+import org.eclipse.collections.api.map.primitive.ImmutableObjectDoubleMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectDoubleMap;
+import org.eclipse.collections.api.map.primitive.ObjectDoubleMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectDoubleHashMap;
 
 /**
+ * An objective with its coefficients by variable name, held in a primitive map.
+ *
  * @author Sebastian Schenker
  */
-public record Objective(String name, ObjectiveSense sense, ImmutableMap<String, Double> coefficients) {
+public record Objective(String name, ObjectiveSense sense, ImmutableObjectDoubleMap<String> coefficients) {
 
   public enum ObjectiveSense {
     MAX(Lists.immutable.of("max", "maximise", "maximize", "maximum")),
@@ -45,7 +48,7 @@ public record Objective(String name, ObjectiveSense sense, ImmutableMap<String,
   public static final class ObjectiveBuilder {
     private String name = null;
     private ObjectiveSense sense = null;
-    private final MutableMap<String, Double> coefficients = new UnifiedMap<>();
+    private final MutableObjectDoubleMap<String> coefficients = new ObjectDoubleHashMap<>();
 
     public ObjectiveBuilder setName(final String value) {
       name = value;
@@ -57,8 +60,14 @@ public record Objective(String name, ObjectiveSense sense, ImmutableMap<String,
       return this;
     }
 
-    public ObjectiveBuilder mergeCoefficients(final ImmutableMap<String, Double> map) {
-      map.forEachKeyValue((key, value) -> coefficients.merge(key, value, Double::sum));
+    /** Adds the given coefficient to the one of the given variable, if there is one. */
+    public ObjectiveBuilder addCoefficient(final String variable, final double value) {
+      coefficients.addToValue(variable, value);
+      return this;
+    }
+
+    public ObjectiveBuilder mergeCoefficients(final ObjectDoubleMap<String> map) {
+      map.forEachKeyValue(coefficients::addToValue);
       return this;
     }
 
@@ -0,0 +1,178 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directory of {@link ModelSnapshot}s of parsed lp files, keyed by the 64-bit xxHash and the size
+ * of the file content. Reading a file whose content has been parsed before loads the snapshot
+ * instead of parsing the file again.
+ *
+ * <p>Several processes may share a cache directory: snapshots are written to a temporary file
+ * which is then atomically moved into place, so that readers only ever see complete snapshots.
+ * Whenever a snapshot is added, the least recently used snapshots are deleted until the total size
+ * of the cache does not exceed its limit. A file whose size or modification time changes while it
+ * is read is not cached, as its snapshot may not match its key. Problems with the cache are logged
+ * and otherwise ignored; the file is then parsed as usual.
+ *
+ * @author Sebastian Schenker
+ */
+public final class ParseCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParseCache.class);
+  private static final String SUFFIX = ".v" + ModelSnapshot.VERSION + ".snapshot";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  // temporary files older than this are left over from crashed writers
+  private static final Duration STALE = Duration.ofHours(1);
+
+  private final Path directory;
+  private final long maxBytes;
+
+  /** Uses the given directory, which is created if necessary, holding at most maxBytes bytes. */
+  public ParseCache(final Path directory, final long maxBytes) throws IOException {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("Expected non-negative byte limit.");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.maxBytes = maxBytes;
+  }
+
+  /** Returns the model held by the given lp file; see {@link LpFileReader#LpFileReader(String)}. */
+  public LpFileReader read(final String path) {
+    return read(path, false);
+  }
+
+  /**
+   * Returns the model held by the given lp file; see
+   * {@link LpFileReader#LpFileReader(String, boolean)}.
+   */
+  public LpFileReader read(final String path, final boolean parallel) {
+    return read(path, () -> new LpFileReader(path, parallel));
+  }
+
+  // parses the given file by the given parser on a miss
+  LpFileReader read(final String path, final Supplier<LpFileReader> parser) {
+    final Path file = Path.of(path);
+    final Path snapshot;
+    final Stamp stamp;
+    try {
+      stamp = Stamp.of(file); // taken first, so that any change while hashing shows
+      snapshot = directory.resolve(key(file) + SUFFIX);
+    } catch (final IOException e) {
+      return parser.get(); // reports the problem
+    }
+    try {
+      final var model = ModelSnapshot.read(snapshot);
+      Files.setLastModifiedTime(snapshot, FileTime.from(Instant.now()));
+      LOGGER.debug("Loaded {} from cached snapshot {}.", path, snapshot);
+      return model;
+    } catch (final NoSuchFileException e) {
+      LOGGER.debug("No cached snapshot of {}.", path);
+    } catch (final IOException | RuntimeException e) {
+      // any failure to load counts as a miss; the unusable snapshot must not shadow the file
+      LOGGER.warn("Ignoring cached snapshot {}: {}", snapshot, e.getMessage());
+      deleteQuietly(snapshot);
+    }
+    final var model = parser.get();
+    if (!model.hasFailed() && unchanged(file, stamp)) {
+      store(model, snapshot);
+    }
+    return model;
+  }
+
+  // size and modification time of a file
+  private record Stamp(long size, FileTime lastModified) {
+    static Stamp of(final Path file) throws IOException {
+      final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      return new Stamp(attributes.size(), attributes.lastModifiedTime());
+    }
+  }
+
+  private static boolean unchanged(final Path file, final Stamp stamp) {
+    try {
+      if (Stamp.of(file).equals(stamp)) {
+        return true;
+      }
+      LOGGER.debug("Not caching {} as it changed while being read.", file);
+    } catch (final IOException e) {
+      LOGGER.debug("Not caching {}: {}", file, e.getMessage());
+    }
+    return false;
+  }
+
+  private static String key(final Path path) throws IOException {
+    return String.format("%016x-%d", XxHash64.hash(path), Files.size(path));
+  }
+
+  private void store(final LpFileReader model, final Path snapshot) {
+    Path temporary = null;
+    try {
+      temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), TEMPORARY_SUFFIX);
+      ModelSnapshot.write(model, temporary);
+      Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      evict();
+    } catch (final IOException e) {
+      LOGGER.warn("Could not cache snapshot {}: {}", snapshot, e.getMessage());
+      if (temporary != null) {
+        deleteQuietly(temporary);
+      }
+    }
+  }
+
+  // deletes least recently used snapshots beyond the size limit and stale temporary files
+  private void evict() throws IOException {
+    final record Entry(Path path, long size, FileTime lastModified) {}
+    final List<Entry> entries;
+    try (final Stream<Path> files = Files.list(directory)) {
+      entries = files.flatMap(file -> {
+        try {
+          return Stream.of(new Entry(file, Files.size(file), Files.getLastModifiedTime(file)));
+        } catch (final IOException e) {
+          return Stream.empty(); // deleted concurrently
+        }
+      }).sorted(Comparator.comparing(Entry::lastModified)).toList();
+    }
+    final var staleBefore = FileTime.from(Instant.now().minus(STALE));
+    long total = 0;
+    for (final var entry : entries) {
+      final var name = entry.path().getFileName().toString();
+      if (name.endsWith(SUFFIX)) {
+        total += entry.size();
+      } else if (name.endsWith(TEMPORARY_SUFFIX) && entry.lastModified().compareTo(staleBefore) < 0) {
+        deleteQuietly(entry.path());
+      }
+    }
+    for (final var entry : entries) {
+      if (total <= maxBytes) {
+        break;
+      }
+      if (entry.path().getFileName().toString().endsWith(SUFFIX)) {
+        LOGGER.debug("Evicting cached snapshot {}.", entry.path());
+        deleteQuietly(entry.path());
+        total -= entry.size();
+      }
+    }
+  }
+
+  private static void deleteQuietly(final Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (final IOException e) {
+      LOGGER.warn("Could not delete {}: {}", path, e.getMessage());
+    }
+  }
+}
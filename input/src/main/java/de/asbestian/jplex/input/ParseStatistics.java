@@ -0,0 +1,197 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.LpParser.Section;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Figures on how an input was parsed: wall and CPU time per section, the amount of input
+ * processed, and the bytes allocated by each thread taking part. CPU time includes the time spent
+ * by worker threads in parallel mode; allocation is missing if the JVM does not measure it.
+ *
+ * @author Sebastian Schenker
+ */
+public final class ParseStatistics {
+
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  public record SectionTime(long wallNanos, long cpuNanos) {}
+
+  private final Map<Section, SectionTime> sectionTimes;
+  private final long bytes;
+  private final int lines;
+  private final long addends;
+  private final int names;
+  private final Map<String, Long> allocatedBytes;
+
+  private ParseStatistics(final ParseStatisticsBuilder builder) {
+    final var times = new EnumMap<Section, SectionTime>(Section.class);
+    for (final var section : Section.values()) {
+      if (builder.visited[section.ordinal()]) {
+        times.put(section, new SectionTime(builder.wallNanos[section.ordinal()],
+            builder.cpuNanos[section.ordinal()]));
+      }
+    }
+    this.sectionTimes = Collections.unmodifiableMap(times);
+    this.bytes = builder.bytes;
+    this.lines = builder.lines;
+    this.addends = builder.addends;
+    this.names = builder.names;
+    this.allocatedBytes = Collections.unmodifiableMap(new TreeMap<>(builder.allocatedBytes));
+  }
+
+  /** Returns statistics of a model which has not been parsed, e.g. loaded from a snapshot. */
+  public static ParseStatistics empty() {
+    return new ParseStatisticsBuilder().build();
+  }
+
+  /** Returns the times of the sections parsed, in order of the sections. */
+  public Map<Section, SectionTime> sectionTimes() {
+    return sectionTimes;
+  }
+
+  public long bytes() {
+    return bytes;
+  }
+
+  public int lines() {
+    return lines;
+  }
+
+  /** Returns the number of addends of all objectives and constraints. */
+  public long addends() {
+    return addends;
+  }
+
+  /** Returns the number of distinct variable names. */
+  public int names() {
+    return names;
+  }
+
+  /** Returns the bytes allocated while parsing, by name of the allocating thread. */
+  public Map<String, Long> allocatedBytes() {
+    return allocatedBytes;
+  }
+
+  @Override
+  public String toString() {
+    final var text = new StringBuilder()
+        .append(bytes).append(" bytes, ").append(lines).append(" lines, ")
+        .append(addends).append(" addends, ").append(names).append(" names");
+    sectionTimes.forEach((section, time) -> text.append(String.format(", %s %.3f ms (cpu %.3f ms)",
+        section, time.wallNanos() / 1e6, time.cpuNanos() / 1e6)));
+    allocatedBytes.forEach((thread, allocated) -> text.append(", ").append(thread)
+        .append(" allocated ").append(allocated).append(" bytes"));
+    return text.toString();
+  }
+
+  static long currentThreadCpuTime() {
+    return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+  }
+
+  /** Returns the bytes allocated by the current thread so far, or -1 if not measured. */
+  static long currentThreadAllocatedBytes() {
+    if (THREADS instanceof com.sun.management.ThreadMXBean threads
+        && threads.isThreadAllocatedMemoryEnabled()) {
+      return threads.getCurrentThreadAllocatedBytes();
+    }
+    return -1;
+  }
+
+  /**
+   * Collects the statistics of a parse. Sections are timed by the parsing thread as it enters
+   * them; work done on other threads is added by them.
+   */
+  static final class ParseStatisticsBuilder {
+    private final long[] wallNanos = new long[Section.values().length];
+    private final long[] cpuNanos = new long[Section.values().length];
+    private final boolean[] visited = new boolean[Section.values().length];
+    private final Map<String, Long> allocatedBytes = new TreeMap<>();
+    private long bytes;
+    private int lines;
+    private long addends;
+    private int names;
+    private Section section; // timed at present
+    private long wallStart;
+    private long cpuStart;
+    private SectionEvent event;
+    // thread timing the sections; its work is included in the section it is in
+    private final Thread owner = Thread.currentThread();
+
+    /** Stops timing the current section, if any, and starts timing the given one. */
+    void enter(final Section next, final int lineNumber) {
+      leave(lineNumber);
+      section = next;
+      visited[next.ordinal()] = true;
+      event = new SectionEvent();
+      event.begin();
+      event.section = next.name();
+      event.firstLine = lineNumber;
+      wallStart = System.nanoTime();
+      cpuStart = currentThreadCpuTime();
+    }
+
+    /** Stops timing the current section, if any. */
+    void leave(final int lineNumber) {
+      if (section == null) {
+        return;
+      }
+      wallNanos[section.ordinal()] += System.nanoTime() - wallStart;
+      cpuNanos[section.ordinal()] += currentThreadCpuTime() - cpuStart;
+      event.end();
+      if (event.shouldCommit()) {
+        event.lastLine = lineNumber;
+        event.commit();
+      }
+      section = null;
+    }
+
+    /**
+     * Adds CPU time spent and bytes allocated by the current thread on the given section. Work of
+     * the thread which created this builder is ignored, as it is already counted by {@link #leave}
+     * and the final {@link #addAllocated}, e.g. when it runs chunks while joining a parallel stream.
+     */
+    synchronized void addWork(final Section section, final long cpuNanos, final long allocated) {
+      if (Thread.currentThread() == owner) {
+        return;
+      }
+      this.cpuNanos[section.ordinal()] += cpuNanos;
+      addAllocated(allocated);
+    }
+
+    /** Adds bytes allocated by the current thread; negative values are ignored. */
+    synchronized void addAllocated(final long allocated) {
+      if (allocated >= 0) {
+        allocatedBytes.merge(Thread.currentThread().getName(), allocated, Long::sum);
+      }
+    }
+
+    ParseStatisticsBuilder setBytes(final long value) {
+      bytes = value;
+      return this;
+    }
+
+    ParseStatisticsBuilder setLines(final int value) {
+      lines = value;
+      return this;
+    }
+
+    synchronized ParseStatisticsBuilder addAddends(final long value) {
+      addends += value;
+      return this;
+    }
+
+    ParseStatisticsBuilder setNames(final int value) {
+      names = value;
+      return this;
+    }
+
+    synchronized ParseStatistics build() {
+      return new ParseStatistics(this);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package de.asbestian.jplex.input;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+
+/**
+ * Bounded in-memory record of the most recent steps of a parser, which is logged when parsing
+ * fails. Tracing is switched on by the system property jplex.trace; since {@link #ENABLED} is a
+ * constant, calls guarded by it cost nothing when tracing is off. The number of steps kept is
+ * given by the system property jplex.trace.capacity and defaults to 256.
+ *
+ * @author Sebastian Schenker
+ */
+final class ParseTrace {
+
+  static final boolean ENABLED = Boolean.getBoolean("jplex.trace");
+  private static final int CAPACITY = Integer.getInteger("jplex.trace.capacity", 256);
+
+  private final String[] steps;
+  private long added; // number of steps added so far
+
+  ParseTrace() {
+    this(CAPACITY);
+  }
+
+  ParseTrace(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    steps = new String[capacity];
+  }
+
+  /** Adds a step, given as a format string and its arguments, dropping the oldest if full. */
+  void add(final String format, final Object... args) {
+    steps[(int) (added++ % steps.length)] = String.format(format, args);
+  }
+
+  /** Returns the steps kept, oldest first. */
+  List<String> steps() {
+    final int size = (int) Math.min(added, steps.length);
+    final var result = new ArrayList<String>(size);
+    for (long i = added - size; i < added; ++i) {
+      result.add(steps[(int) (i % steps.length)]);
+    }
+    return result;
+  }
+
+  /** Logs the steps kept, oldest first. */
+  void dump(final Logger logger) {
+    final var kept = steps();
+    if (kept.isEmpty()) {
+      return;
+    }
+    logger.warn("Last {} of {} parse steps:", kept.size(), added);
+    kept.forEach(step -> logger.warn("  {}", step));
+  }
+}
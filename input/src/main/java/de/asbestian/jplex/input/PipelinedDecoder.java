@@ -0,0 +1,137 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a decoding stream, e.g. a decompressor, on a separate thread which hands the decoded bytes
+ * over in chunks through a bounded queue, so that decoding and parsing overlap. Chunks are recycled
+ * once consumed; at most {@link #QUEUE_CAPACITY} decoded chunks are held ahead of the reader.
+ * The decoding thread owns the stream and closes it when it stops; closing the channel only
+ * signals the thread and waits for it, so the stream is never closed in the middle of a read.
+ *
+ * @author Sebastian Schenker
+ */
+final class PipelinedDecoder implements ReadableByteChannel {
+
+  static final int CHUNK_SIZE = 1 << 16;
+  static final int QUEUE_CAPACITY = 8;
+
+  // length is -1 at the end of the input; error is null unless decoding failed
+  private static record Chunk(byte[] bytes, int length, IOException error) {}
+
+  private static final Chunk END = new Chunk(new byte[0], -1, null);
+
+  private final InputStream decoded;
+  private final BlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final BlockingQueue<byte[]> recycled = new ArrayBlockingQueue<>(QUEUE_CAPACITY + 1);
+  private final Thread decoder;
+  private Chunk current;
+  private int position;
+  private volatile boolean open = true;
+
+  PipelinedDecoder(final InputStream decoded) {
+    this.decoded = decoded;
+    this.decoder = new Thread(this::decode, "lp-decoder");
+    decoder.setDaemon(true);
+    decoder.start();
+  }
+
+  private void decode() {
+    try {
+      try {
+        while (open) {
+          final byte[] bytes = recycled.poll();
+          final var chunk = readChunk(bytes == null ? new byte[CHUNK_SIZE] : bytes);
+          if (chunk.length() > 0) {
+            filled.put(chunk);
+          }
+          if (chunk.length() < CHUNK_SIZE) {
+            filled.put(END);
+            return;
+          }
+        }
+      } catch (final IOException e) {
+        filled.put(new Chunk(null, -1, e));
+      }
+    } catch (final InterruptedException e) {
+      // closed by the reader
+    } finally {
+      try {
+        decoded.close();
+      } catch (final IOException e) {
+        // all decoded bytes have been handed over or are no longer wanted
+      }
+    }
+  }
+
+  private Chunk readChunk(final byte[] bytes) throws IOException {
+    int length = 0;
+    while (length < bytes.length) {
+      final int read = decoded.read(bytes, length, bytes.length - length);
+      if (read < 0) {
+        break;
+      }
+      length += read;
+    }
+    return new Chunk(bytes, length, null);
+  }
+
+  @Override
+  public int read(final ByteBuffer buffer) throws IOException {
+    if (current != null && current.error() != null) {
+      throw current.error();
+    }
+    if (current == null || position == current.length()) {
+      if (current == END) {
+        return -1;
+      }
+      if (current != null) {
+        recycled.offer(current.bytes());
+      }
+      current = take();
+      position = 0;
+      if (current.error() != null) {
+        throw current.error();
+      }
+      if (current == END) {
+        return -1;
+      }
+    }
+    final int length = Math.min(buffer.remaining(), current.length() - position);
+    buffer.put(current.bytes(), position, length);
+    position += length;
+    return length;
+  }
+
+  private Chunk take() throws IOException {
+    try {
+      return filled.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for decoded input.");
+    }
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public void close() throws IOException {
+    open = false;
+    decoder.interrupt();
+    try {
+      decoder.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the decoder to stop.");
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package de.asbestian.jplex.input;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the parse of a section of an lp file by the parsing thread.
+ *
+ * @author Sebastian Schenker
+ */
+@Name("de.asbestian.jplex.Section")
+@Label("LP Section")
+@Category("jplex")
+@Description("Parse of a section of an lp file")
+final class SectionEvent extends jdk.jfr.Event {
+
+  @Label("Section")
+  String section;
+
+  @Label("First Line")
+  int firstLine;
+
+  @Label("Last Line")
+  int lastLine;
+}
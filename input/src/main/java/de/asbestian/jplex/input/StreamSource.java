@@ -0,0 +1,123 @@
+package de.asbestian.jplex.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads an input of unknown length, e.g. a pipe, into a buffer which is refilled as the input is
+ * consumed. The buffer grows whenever a single line does not fit. Offsets are positions within the
+ * input. Streams and channels given by the caller are left open on closing this source.
+ *
+ * @author Sebastian Schenker
+ */
+final class StreamSource implements ByteSource {
+
+  static final int INITIAL_CAPACITY = 1 << 16;
+
+  // reads bytes into the remaining part of the buffer; returns -1 at the end of the input
+  private interface Fill {
+    int read(ByteBuffer buffer) throws IOException;
+  }
+
+  private final Fill fill;
+  private final boolean direct;
+  private final Closeable resource; // closed along with this source
+  private ByteBuffer buffer;
+  private long offset;
+  private boolean endOfInput;
+
+  private StreamSource(final Fill fill, final boolean direct, final Closeable resource) {
+    this.fill = fill;
+    this.direct = direct;
+    this.resource = resource;
+  }
+
+  /** Reads the given blocking channel into a direct buffer. */
+  static StreamSource of(final ReadableByteChannel channel) {
+    return new StreamSource(channel::read, true, () -> {});
+  }
+
+  /**
+   * Reads the remaining bytes of the given head, which have already been read from the given
+   * blocking channel, followed by the channel into a direct buffer.
+   */
+  static StreamSource of(final ByteBuffer head, final ReadableByteChannel channel) {
+    return new StreamSource(buffer -> {
+      if (!head.hasRemaining()) {
+        return channel.read(buffer);
+      }
+      final int length = Math.min(head.remaining(), buffer.remaining());
+      buffer.put(head.slice(head.position(), length));
+      head.position(head.position() + length);
+      return length;
+    }, true, () -> {});
+  }
+
+  /** Reads the given stream straight into the array backing a heap buffer. */
+  static StreamSource of(final InputStream stream) {
+    return new StreamSource(buffer -> {
+      final int read = stream.read(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+      if (read > 0) {
+        buffer.position(buffer.position() + read);
+      }
+      return read;
+    }, false, () -> {});
+  }
+
+  /**
+   * Reads the given decoding stream on a separate thread; see {@link PipelinedDecoder}. The stream
+   * is closed along with this source.
+   */
+  static StreamSource decoding(final InputStream decoded) {
+    final var decoder = new PipelinedDecoder(decoded);
+    return new StreamSource(decoder::read, false, decoder);
+  }
+
+  @Override
+  public ByteBuffer first() throws IOException {
+    buffer = allocate(INITIAL_CAPACITY);
+    return refill();
+  }
+
+  @Override
+  public long offset() {
+    return offset;
+  }
+
+  @Override
+  public boolean hasMore() {
+    return !endOfInput;
+  }
+
+  @Override
+  public ByteBuffer advance(final int from) throws IOException {
+    offset += from;
+    if (from == 0) { // a single line fills the whole buffer
+      buffer = allocate(2 * buffer.capacity()).put(buffer);
+    } else {
+      buffer.position(from).compact();
+    }
+    return refill();
+  }
+
+  // fills the buffer up to its capacity or the end of the input, whichever comes first
+  private ByteBuffer refill() throws IOException {
+    while (buffer.hasRemaining() && !endOfInput) {
+      endOfInput = fill.read(buffer) < 0;
+    }
+    return buffer.flip();
+  }
+
+  private ByteBuffer allocate(final int capacity) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  @Override
+  public void close() throws IOException {
+    resource.close();
+  }
+}
@@ -0,0 +1,159 @@
+package de.asbestian.jplex.input;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+
+/**
+ * Assigns each variable name a dense index. Indices are handed out in order of first appearance,
+ * starting with 0.
+ *
+ * @author Sebastian Schenker
+ */
+public final class SymbolTable {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private String[] names;
+  private int[] hashes;
+  private int[] slots; // index + 1 of the name occupying the slot; 0 marks an empty slot
+  private int size;
+
+  public SymbolTable() {
+    names = new String[INITIAL_CAPACITY];
+    hashes = new int[INITIAL_CAPACITY];
+    slots = new int[2 * INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Returns the name with the given index. */
+  public String name(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return names[index];
+  }
+
+  /** Returns the index of the given name or -1 if the name is unknown. */
+  public int indexOf(final String name) {
+    final int hash = spread(name.hashCode());
+    final int mask = slots.length - 1;
+    for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      final int index = slots[slot] - 1;
+      if (hashes[index] == hash && names[index].equals(name)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the index of the name held by bytes [from, to) or -1 if the name is unknown. */
+  int indexOf(final ByteBuffer bytes, final int from, final int to) {
+    final int hash = spread(hash(bytes, from, to));
+    final int mask = slots.length - 1;
+    for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      final int index = slots[slot] - 1;
+      if (hashes[index] == hash && equals(names[index], bytes, from, to)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns all names ordered by index. */
+  public ImmutableList<String> names() {
+    return Lists.immutable.of(Arrays.copyOf(names, size));
+  }
+
+  /** Returns the index of the given name; unknown names are assigned the next free index. */
+  int intern(final String name) {
+    final int hash = spread(name.hashCode());
+    final int mask = slots.length - 1;
+    int slot = hash & mask;
+    for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+      final int index = slots[slot] - 1;
+      if (hashes[index] == hash && names[index].equals(name)) {
+        return index;
+      }
+    }
+    return add(name, hash, slot);
+  }
+
+  /**
+   * Returns the index of the name held by bytes [from, to); unknown names are assigned the next free
+   * index. A string is only created for names not seen before.
+   */
+  int intern(final ByteBuffer bytes, final int from, final int to) {
+    final int hash = spread(hash(bytes, from, to));
+    final int mask = slots.length - 1;
+    int slot = hash & mask;
+    for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+      final int index = slots[slot] - 1;
+      if (hashes[index] == hash && equals(names[index], bytes, from, to)) {
+        return index;
+      }
+    }
+    final byte[] name = new byte[to - from];
+    bytes.get(from, name);
+    return add(new String(name, StandardCharsets.ISO_8859_1), hash, slot);
+  }
+
+  private int add(final String name, final int hash, final int slot) {
+    if (size == names.length) {
+      names = Arrays.copyOf(names, 2 * size);
+      hashes = Arrays.copyOf(hashes, 2 * size);
+    }
+    final int index = size++;
+    names[index] = name;
+    hashes[index] = hash;
+    slots[slot] = index + 1;
+    if (2 * size > slots.length) {
+      rehash();
+    }
+    return index;
+  }
+
+  private void rehash() {
+    slots = new int[2 * slots.length];
+    final int mask = slots.length - 1;
+    for (int index = 0; index < size; ++index) {
+      int slot = hashes[index] & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = index + 1;
+    }
+  }
+
+  /** Computes the same hash as {@link String#hashCode()} of the ISO-8859-1 decoded bytes. */
+  private static int hash(final ByteBuffer bytes, final int from, final int to) {
+    int hash = 0;
+    for (int i = from; i < to; ++i) {
+      hash = 31 * hash + (bytes.get(i) & 0xFF);
+    }
+    return hash;
+  }
+
+  private static boolean equals(final String name, final ByteBuffer bytes, final int from,
+      final int to) {
+    if (name.length() != to - from) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); ++i) {
+      if (name.charAt(i) != (bytes.get(from + i) & 0xFF)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int spread(final int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
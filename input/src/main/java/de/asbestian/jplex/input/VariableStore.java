@@ -0,0 +1,127 @@
+package de.asbestian.jplex.input;
+
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.util.Arrays;
+import org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+/**
+ * Column-wise storage of the variables of a model. Variables are indexed as in the
+ * {@link SymbolTable} of the model; the type of variable j is encoded as the ordinal of its
+ * {@link VariableType}. The indices of the variables of each type are computed once on
+ * construction.
+ *
+ * <p>The accessors return the internal arrays without copying; callers must not modify them.
+ *
+ * @author Sebastian Schenker
+ */
+public final class VariableStore {
+
+  private static final VariableType[] TYPES = VariableType.values();
+
+  private final double[] lb;
+  private final double[] ub;
+  private final byte[] type;
+  private final int[][] indices; // per type
+
+  VariableStore(final double[] lb, final double[] ub, final byte[] type) {
+    if (lb.length != ub.length || lb.length != type.length) {
+      throw new InputException("Inconsistent number of variables.");
+    }
+    this.lb = lb;
+    this.ub = ub;
+    this.type = type;
+    final var perType = new IntArrayList[TYPES.length];
+    Arrays.setAll(perType, t -> new IntArrayList());
+    for (int j = 0; j < type.length; ++j) {
+      perType[type[j]].add(j);
+    }
+    this.indices = new int[TYPES.length][];
+    Arrays.setAll(indices, t -> perType[t].toArray());
+  }
+
+  public static VariableStore empty() {
+    return new VariableStore(new double[0], new double[0], new byte[0]);
+  }
+
+  public int size() {
+    return type.length;
+  }
+
+  public double[] lb() {
+    return lb;
+  }
+
+  public double[] ub() {
+    return ub;
+  }
+
+  public byte[] type() {
+    return type;
+  }
+
+  public VariableType getType(final int index) {
+    return TYPES[type[index]];
+  }
+
+  /** Returns the indices of all variables with the given type in ascending order. */
+  public int[] indicesOf(final VariableType variableType) {
+    return indices[variableType.ordinal()];
+  }
+
+  /**
+   * Builds a variable store. New variables are continuous with bounds [0, infinity); bounds of
+   * binary variables are clipped to [0, 1] on {@link #build()}.
+   */
+  public static final class VariableStoreBuilder {
+
+    private final DoubleArrayList lb = new DoubleArrayList();
+    private final DoubleArrayList ub = new DoubleArrayList();
+    private final ByteArrayList type = new ByteArrayList();
+
+    public int size() {
+      return type.size();
+    }
+
+    /** Adds a new variable and returns its index. */
+    public int add() {
+      lb.add(0.);
+      ub.add(Double.POSITIVE_INFINITY);
+      type.add((byte) VariableType.CONTINUOUS.ordinal());
+      return type.size() - 1;
+    }
+
+    public VariableStoreBuilder setLb(final int index, final double value) {
+      lb.set(index, value);
+      return this;
+    }
+
+    public VariableStoreBuilder setUb(final int index, final double value) {
+      ub.set(index, value);
+      return this;
+    }
+
+    public VariableStoreBuilder setType(final int index, final VariableType value) {
+      type.set(index, (byte) value.ordinal());
+      return this;
+    }
+
+    public VariableStore build() {
+      final double[] lbs = lb.toArray();
+      final double[] ubs = ub.toArray();
+      final byte[] types = type.toArray();
+      final byte binary = (byte) VariableType.BINARY.ordinal();
+      for (int j = 0; j < types.length; ++j) {
+        if (types[j] == binary) {
+          lbs[j] = Math.max(lbs[j], 0.);
+          ubs[j] = Math.min(ubs[j], 1.);
+        }
+        if (lbs[j] > ubs[j]) {
+          throw new InputException(String.format("Lower bound = %f > %f = upper bound.", lbs[j], ubs[j]));
+        }
+      }
+      return new VariableStore(lbs, ubs, types);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package de.asbestian.jplex.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The 64-bit xxHash of a file, computed with seed 0 over the memory mapped file in a single pass.
+ *
+ * @author Sebastian Schenker
+ */
+final class XxHash64 {
+
+  private static final long P1 = 0x9E3779B185EBCA87L;
+  private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long P3 = 0x165667B19E3779F9L;
+  private static final long P4 = 0x85EBCA77C2B2AE63L;
+  private static final long P5 = 0x27D4EB2F165667C5L;
+  private static final int STRIPE = 32;
+  // multiple of the stripe length, so that only the last window holds a partial stripe
+  private static final int WINDOW_SIZE = 1 << 30;
+
+  private XxHash64() {}
+
+  static long hash(final Path path) throws IOException {
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      long v1 = P1 + P2;
+      long v2 = P2;
+      long v3 = 0;
+      long v4 = -P1;
+      ByteBuffer window = ByteBuffer.allocate(0);
+      int i = 0;
+      for (long offset = 0; offset < size; offset += window.limit()) {
+        window = channel.map(MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        for (i = 0; i + STRIPE <= window.limit(); i += STRIPE) {
+          v1 = round(v1, window.getLong(i));
+          v2 = round(v2, window.getLong(i + 8));
+          v3 = round(v3, window.getLong(i + 16));
+          v4 = round(v4, window.getLong(i + 24));
+        }
+      }
+      long h;
+      if (size >= STRIPE) {
+        h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+            + Long.rotateLeft(v4, 18);
+        h = merge(h, v1);
+        h = merge(h, v2);
+        h = merge(h, v3);
+        h = merge(h, v4);
+      } else {
+        h = P5;
+      }
+      h += size;
+      // tail of the last window
+      for (; i + 8 <= window.limit(); i += 8) {
+        h ^= round(0, window.getLong(i));
+        h = Long.rotateLeft(h, 27) * P1 + P4;
+      }
+      if (i + 4 <= window.limit()) {
+        h ^= (window.getInt(i) & 0xFFFF_FFFFL) * P1;
+        h = Long.rotateLeft(h, 23) * P2 + P3;
+        i += 4;
+      }
+      for (; i < window.limit(); ++i) {
+        h ^= (window.get(i) & 0xFFL) * P5;
+        h = Long.rotateLeft(h, 11) * P1;
+      }
+      h ^= h >>> 33;
+      h *= P2;
+      h ^= h >>> 29;
+      h *= P3;
+      h ^= h >>> 32;
+      return h;
+    }
+  }
+
+  private static long round(final long acc, final long input) {
+    return Long.rotateLeft(acc + input * P2, 31) * P1;
+  }
+
+  private static long merge(final long h, final long v) {
+    return (h ^ round(0, v)) * P1 + P4;
+  }
+}
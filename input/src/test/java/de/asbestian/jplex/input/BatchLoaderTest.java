@@ -0,0 +1,102 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class BatchLoaderTest {
+
+  private static final Path RESOURCES = Path.of("src/test/resources");
+
+  @Test
+  void testResources_eachFileReportedOnce() throws IOException, InterruptedException {
+    final var paths = BatchLoader.lpFiles(RESOURCES);
+    final List<BatchLoader.Result> results = new ArrayList<>();
+
+    // a limit below the file sizes forces files to be read one after another
+    new BatchLoader(4, 1).load(paths, results::add);
+
+    final Map<Path, BatchLoader.Result> byPath = results.stream()
+        .collect(Collectors.toMap(BatchLoader.Result::path, Function.identity()));
+    assertEquals(paths.size(), results.size());
+    assertEquals(paths.size(), byPath.size());
+    for (final var path : paths) {
+      final var result = byPath.get(path);
+      final var expected = new LpFileReader(path.toString());
+      assertEquals(!expected.hasFailed(), result.succeeded());
+      if (result.succeeded()) {
+        assertNull(result.failure());
+        assertEquals(expected.getNumberOfConstraints(), result.model().getNumberOfConstraints());
+      } else {
+        assertNull(result.model());
+      }
+    }
+  }
+
+  @Test
+  void compressedFile_estimatedByDecompressedSize(@TempDir final Path tempDir) throws IOException {
+    final Path plain = RESOURCES.resolve("3obj_2cons.lp");
+    final byte[] text = Files.readAllBytes(plain);
+    final Path gzip = tempDir.resolve("3obj_2cons.lp.gz");
+    try (final var out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+      out.write(text);
+    }
+    final Path zstd = tempDir.resolve("model.lp.zst");
+    Files.write(zstd, new byte[] {0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0, 0, 0, 0});
+
+    assertEquals(text.length * BatchLoader.MODEL_EXPANSION, BatchLoader.estimatedBytes(plain));
+    assertEquals(text.length * BatchLoader.MODEL_EXPANSION, BatchLoader.estimatedBytes(gzip));
+    assertEquals(8 * BatchLoader.ZSTD_EXPANSION * BatchLoader.MODEL_EXPANSION,
+        BatchLoader.estimatedBytes(zstd));
+  }
+
+  @Test
+  void missingFile_reportedAsFailure() throws InterruptedException {
+    final List<BatchLoader.Result> results = new ArrayList<>();
+
+    new BatchLoader(2, 1 << 20).load(
+        List.of(RESOURCES.resolve("missing.lp"), RESOURCES.resolve("3obj_2cons.lp")), results::add);
+
+    assertEquals(2, results.size());
+    for (final var result : results) {
+      assertEquals(result.path().endsWith("3obj_2cons.lp"), result.succeeded());
+    }
+    assertTrue(results.stream().anyMatch(r -> !r.succeeded() && r.failure() instanceof IOException));
+  }
+
+  @Test
+  void errorWhileReading_reportedAndPermitsReleased() {
+    final Path failing = RESOURCES.resolve("2obj_2cons_all_variable_types.lp");
+    final var paths = List.of(failing, RESOURCES.resolve("3obj_2cons.lp"),
+        RESOURCES.resolve("1obj_3cons_sense_operators.lp"));
+    final List<BatchLoader.Result> results = new ArrayList<>();
+
+    // each file takes all permits, so the files after the failing one wait for its permits
+    assertTimeoutPreemptively(Duration.ofMinutes(1), () -> new BatchLoader(1, 1).load(paths,
+        results::add, path -> {
+          if (path.equals(failing)) {
+            throw new OutOfMemoryError("Simulated.");
+          }
+          return new LpFileReader(path.toString());
+        }));
+
+    assertEquals(paths.size(), results.size());
+    assertTrue(results.get(0).failure() instanceof OutOfMemoryError);
+    assertTrue(results.get(1).succeeded());
+  }
+}
@@ -0,0 +1,91 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.ConstraintMatrix.ConstraintMatrixBuilder;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class ConstraintMatrixTest {
+
+  @Test
+  void builder_duplicateColumnsSummedWithinRow() {
+    final var matrix = new ConstraintMatrixBuilder()
+        .addCoefficient(2, 1.)
+        .addCoefficient(0, 2.)
+        .addCoefficient(2, 3.)
+        .endRow(ConstraintSense.LE, 5.)
+        .addCoefficient(2, 4.)
+        .endRow(ConstraintSense.EQ, 6.)
+        .build(3);
+
+    assertEquals(2, matrix.getNumberOfRows());
+    assertArrayEquals(new int[] {0, 2, 3}, matrix.rowStart());
+    assertArrayEquals(new int[] {2, 0, 2}, matrix.colIndex());
+    assertArrayEquals(new double[] {4., 2., 4.}, matrix.value());
+    assertArrayEquals(new double[] {5., 6.}, matrix.rhs());
+    assertEquals(ConstraintSense.EQ, matrix.getSense(1));
+  }
+
+  @Test
+  void columnMatrix_transposeOrderedByRow() {
+    final var matrix = new ConstraintMatrixBuilder()
+        .addCoefficient(2, 1.)
+        .addCoefficient(0, 2.)
+        .endRow(ConstraintSense.LE, 0.)
+        .addCoefficient(1, 3.)
+        .addCoefficient(2, 4.)
+        .endRow(ConstraintSense.LE, 0.)
+        .build(4);
+
+    final var columns = matrix.getColumnMatrix();
+
+    assertSame(columns, matrix.getColumnMatrix());
+    assertEquals(4, columns.getNumberOfColumns());
+    assertArrayEquals(new int[] {0, 1, 2, 4, 4}, columns.colStart());
+    assertArrayEquals(new int[] {0, 1, 0, 1}, columns.rowIndex());
+    assertArrayEquals(new double[] {2., 3., 1., 4.}, columns.value());
+  }
+
+  @Test
+  void columnMatrix_largeRandomMatrix() {
+    final var random = new Random(42);
+    final int m = 20_000;
+    final int n = 5_000;
+    final var builder = new ConstraintMatrixBuilder();
+    final double[][] dense = new double[m][];
+    for (int i = 0; i < m; ++i) {
+      dense[i] = new double[n];
+      for (int k = 0; k < 20; ++k) {
+        final int j = random.nextInt(n);
+        final double value = random.nextInt(100) + 1;
+        builder.addCoefficient(j, value);
+        dense[i][j] += value;
+      }
+      builder.endRow(ConstraintSense.EQ, 0.);
+    }
+
+    final var columns = builder.build(n).getColumnMatrix();
+
+    final int[] colStart = columns.colStart();
+    for (int j = 0; j < n; ++j) {
+      int previousRow = -1;
+      for (int k = colStart[j]; k < colStart[j + 1]; ++k) {
+        final int i = columns.rowIndex()[k];
+        assertEquals(dense[i][j], columns.value()[k]);
+        assertEquals(true, i > previousRow);
+        dense[i][j] = 0.;
+        previousRow = i;
+      }
+    }
+    for (final double[] row : dense) {
+      for (final double value : row) {
+        assertEquals(0., value);
+      }
+    }
+  }
+}
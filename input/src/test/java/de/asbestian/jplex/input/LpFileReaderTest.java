@@ -1,7 +1,9 @@
 package de.asbestian.jplex.input;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
 import de.asbestian.jplex.input.Objective.ObjectiveSense;
 import de.asbestian.jplex.input.Variable.VariableType;
 import org.junit.jupiter.api.Test;
@@ -95,4 +97,98 @@ class LpFileReaderTest {
     assertEquals(-3, objective.getCoeff(y));
     assertEquals(4, objective.getCoeff(z));
   }
+
+  @Test
+  void threeObjectivesTwoConstraints_variableIndicesInOrderOfFirstAppearance() {
+    final var path = "src/test/resources/3obj_2cons.lp";
+
+    final LpFileReader input = new LpFileReader(path);
+    final var symbols = input.getSymbolTable();
+
+    assertEquals(3, symbols.size());
+    assertEquals(0, symbols.indexOf("x"));
+    assertEquals(1, symbols.indexOf("y"));
+    assertEquals(2, symbols.indexOf("z"));
+    assertEquals("y", input.getVariable(1).name());
+  }
+
+  @Test
+  void threeObjectivesTwoConstraints_constraintMatrix() {
+    final var path = "src/test/resources/3obj_2cons.lp";
+
+    final LpFileReader input = new LpFileReader(path);
+    final var matrix = input.getConstraintMatrix();
+    final var symbols = input.getSymbolTable();
+
+    assertEquals(2, matrix.getNumberOfRows());
+    assertEquals(3, matrix.getNumberOfColumns());
+    assertEquals(5, matrix.getNumberOfNonzeros());
+    assertArrayEquals(new int[] {0, 3, 5}, matrix.rowStart());
+    assertArrayEquals(new double[] {0, 0}, matrix.rhs());
+    assertEquals(ConstraintSense.LE, matrix.getSense(0));
+    assertEquals(ConstraintSense.GE, matrix.getSense(1));
+    final double[] row = new double[3];
+    for (int i = matrix.rowStart()[0]; i < matrix.rowStart()[1]; ++i) {
+      row[matrix.colIndex()[i]] = matrix.value()[i];
+    }
+    assertEquals(-199, row[symbols.indexOf("x")]);
+    assertEquals(10, row[symbols.indexOf("y")]);
+    assertEquals(1, row[symbols.indexOf("z")]);
+    final var constraint = input.getConstraint(1);
+    assertEquals("cons2", constraint.name());
+    assertEquals(10, constraint.lineNumber());
+    assertEquals(ConstraintSense.GE, constraint.sense());
+    assertEquals(2, constraint.coefficients().size());
+  }
+
+  @Test
+  void oneObjectiveOneConstraint_variableStore() {
+    final var path = "src/test/resources/1obj_1cons_all_variables_with_bounds.lp";
+
+    final LpFileReader input = new LpFileReader(path);
+    final var store = input.getVariableStore();
+
+    assertEquals(3, store.size());
+    assertArrayEquals(new int[] {0}, store.indicesOf(VariableType.CONTINUOUS));
+    assertArrayEquals(new int[] {1}, store.indicesOf(VariableType.INTEGER));
+    assertArrayEquals(new int[] {2}, store.indicesOf(VariableType.BINARY));
+    assertArrayEquals(new double[] {Double.NEGATIVE_INFINITY, 10., 0.}, store.lb());
+    assertArrayEquals(new double[] {Double.POSITIVE_INFINITY, 12., 1.}, store.ub());
+    assertEquals(VariableType.BINARY, store.getType(2));
+  }
+
+  @Test
+  void oneObjectiveOneConstraint_linearExpressions() {
+    final var path = "src/test/resources/1obj_1cons_linear_expressions.lp";
+
+    final LpFileReader input = new LpFileReader(path);
+    final var objective = input.getObjective(0);
+    final var constraint = input.getConstraint(0);
+
+    assertEquals(4, input.getNumberOfVariables());
+    assertEquals(1., objective.coefficients().get("x"));
+    assertEquals(0.35, objective.coefficients().get("y"));
+    assertEquals(-1., objective.coefficients().get("e1"));
+    assertEquals(150., objective.coefficients().get("z_1"));
+    assertEquals(4, constraint.coefficients().size());
+    assertEquals(3., constraint.coefficients().get("x"));
+  }
+
+  @Test
+  void oneObjectiveThreeConstraints_senseOperators() {
+    final var path = "src/test/resources/1obj_3cons_sense_operators.lp";
+
+    final LpFileReader input = new LpFileReader(path);
+    final var matrix = input.getConstraintMatrix();
+    final var store = input.getVariableStore();
+
+    assertEquals(3, input.getNumberOfConstraints());
+    assertEquals(ConstraintSense.GE, matrix.getSense(0));
+    assertEquals(ConstraintSense.LE, matrix.getSense(1));
+    assertEquals(ConstraintSense.GE, matrix.getSense(2));
+    assertArrayEquals(new double[] {1., 4., -2.}, matrix.rhs());
+    assertArrayEquals(new double[] {-1., 0.5, 0., Double.NEGATIVE_INFINITY}, store.lb());
+    assertArrayEquals(new double[] {3., Double.POSITIVE_INFINITY, 4., Double.POSITIVE_INFINITY},
+        store.ub());
+  }
 }
@@ -0,0 +1,114 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.asbestian.jplex.input.MpsFileReader.MpsFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class LpFileWriterTest {
+
+  @TempDir
+  Path tempDir;
+
+  private LpFileReader roundTrip(final LpFileReader model) throws IOException {
+    final Path path = tempDir.resolve("written.lp");
+    new LpFileWriter().write(model, path);
+    final var written = new LpFileReader(path.toString());
+    assertFalse(written.hasFailed());
+    return written;
+  }
+
+  private static void assertSameModel(final LpFileReader expected, final LpFileReader actual) {
+    assertEquals(expected.getSymbolTable().names(), actual.getSymbolTable().names());
+    assertEquals(expected.getNumberOfObjectives(), actual.getNumberOfObjectives());
+    for (int k = 0; k < expected.getNumberOfObjectives(); ++k) {
+      assertEquals(expected.getObjective(k), actual.getObjective(k));
+    }
+    assertEquals(expected.getConstraintNames(), actual.getConstraintNames());
+    final var expectedMatrix = expected.getConstraintMatrix();
+    final var actualMatrix = actual.getConstraintMatrix();
+    assertArrayEquals(expectedMatrix.rowStart(), actualMatrix.rowStart());
+    assertArrayEquals(expectedMatrix.colIndex(), actualMatrix.colIndex());
+    assertArrayEquals(expectedMatrix.value(), actualMatrix.value());
+    assertArrayEquals(expectedMatrix.rhs(), actualMatrix.rhs());
+    assertArrayEquals(expectedMatrix.sense(), actualMatrix.sense());
+    assertArrayEquals(expected.getVariableStore().lb(), actual.getVariableStore().lb());
+    assertArrayEquals(expected.getVariableStore().ub(), actual.getVariableStore().ub());
+    assertArrayEquals(expected.getVariableStore().type(), actual.getVariableStore().type());
+  }
+
+  @Test
+  void testResources_sameModelReadBack() throws IOException {
+    for (final var name : new String[] {"1obj_1cons_all_variables_with_bounds.lp",
+        "1obj_1cons_linear_expressions.lp", "1obj_3cons_sense_operators.lp",
+        "2obj_2cons_all_variable_types.lp", "2obj_2cons_only_binary_vars.lp", "3obj_2cons.lp"}) {
+      final var model = new LpFileReader("src/test/resources/" + name);
+      assertSameModel(model, roundTrip(model));
+    }
+  }
+
+  @Test
+  void generatedModel_sameModelReadBack() throws IOException {
+    final var model = new LpFileReader(LpPrescanTest.generateModel(tempDir, 500, 3).toString());
+
+    assertSameModel(model, roundTrip(model));
+  }
+
+  @Test
+  void mpsModel_sameModelReadBack() throws IOException {
+    final var model =
+        MpsFileReader.read("src/test/resources/1obj_1cons_all_variables_with_bounds.mps");
+
+    assertSameModel(model, roundTrip(model));
+  }
+
+  @Test
+  void mpsModelWithSpacesInNames_throws() throws IOException {
+    final var model = MpsFileReader.read(
+        LpSource.of(Path.of("src/test/resources/fixed_names_with_spaces.mps")), MpsFormat.FIXED);
+
+    final var e = assertThrows(IllegalArgumentException.class, () -> roundTrip(model));
+
+    assertEquals("Variable name 'x 1' cannot be written in lp format.", e.getMessage());
+  }
+
+  @Test
+  void namesInvalidInLpFormat_throw() throws IOException {
+    for (final var name : new String[] {"1x", ".x", "x+y", "x-y", "x:y", "x<y", "x[1]", "x\u00e4"}) {
+      final var variable = MpsFileReader.read(LpSource.of(
+          "NAME\nROWS\n N obj\n L c\nCOLUMNS\n    " + name + " c 1\nENDATA\n"), MpsFormat.FREE);
+      final var constraint = MpsFileReader.read(LpSource.of(
+          "NAME\nROWS\n N obj\n L " + name + "\nCOLUMNS\n    x " + name + " 1\nENDATA\n"),
+          MpsFormat.FREE);
+
+      assertThrows(IllegalArgumentException.class, () -> roundTrip(variable), name);
+      assertThrows(IllegalArgumentException.class, () -> roundTrip(constraint), name);
+    }
+  }
+
+  @Test
+  void longConstraint_wrappedIntoContinuationLines() throws IOException {
+    final var lp = new StringBuilder("min\n obj: x0\nst\n c:");
+    for (int j = 0; j < 1000; ++j) {
+      lp.append(" + ").append(j % 7 + 0.25).append(" x").append(j);
+    }
+    lp.append(" >= -3.5\nbounds\n -inf <= x1 <= 4\n x2 = 3\n x3 >= -2\nend\n");
+    final var model = new LpFileReader(LpSource.of(lp));
+
+    final var written = roundTrip(model);
+
+    assertSameModel(model, written);
+    final var lines = Files.readAllLines(tempDir.resolve("written.lp"));
+    assertTrue(lines.size() > 20);
+    assertTrue(lines.stream().allMatch(line -> line.length() <= LpFileWriter.MAX_LINE_LENGTH));
+  }
+}
@@ -0,0 +1,68 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class LpLexerTest {
+
+  private static final Path PATH = Path.of("src/test/resources/3obj_2cons.lp");
+
+  private static List<String> readLines(final ByteSource source) throws IOException {
+    final List<String> lines = new ArrayList<>();
+    try (final var lexer = new LpLexer(source)) {
+      while (lexer.nextProperLine()) {
+        lines.add(lexer.lineNumber() + ":" + lexer.line());
+      }
+    }
+    return lines;
+  }
+
+  @Test
+  void properLines_strippedOfCommentsAndWhitespace() throws IOException {
+    final var lines = readLines(new MappedFileSource(PATH));
+
+    assertEquals(9, lines.size());
+    assertEquals("3:Minimize", lines.get(0));
+    assertEquals("6:obj3: 10z - 2.5x", lines.get(3));
+    assertEquals("10:cons2: y + z  >= 0", lines.get(7));
+    assertEquals("11:End", lines.get(8));
+  }
+
+  @Test
+  void smallWindows_sameLines() throws IOException {
+    final var expected = readLines(new MappedFileSource(PATH));
+
+    final var actual = readLines(new MappedFileSource(PATH, 40));
+
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void lineLongerThanWindow_throws() throws IOException {
+    try (final var lexer = new LpLexer(new MappedFileSource(PATH, 8))) {
+      assertThrows(InputException.class, () -> {
+        while (lexer.nextProperLine()) {
+          assertFalse(lexer.line().isEmpty());
+        }
+      });
+    }
+  }
+
+  @Test
+  void lineEqualsIgnoreCase() throws IOException {
+    try (final var lexer = new LpLexer(new MappedFileSource(PATH))) {
+      assertTrue(lexer.nextProperLine());
+      assertTrue(lexer.lineEqualsIgnoreCase("minimize"));
+      assertFalse(lexer.lineEqualsIgnoreCase("minimise"));
+    }
+  }
+}
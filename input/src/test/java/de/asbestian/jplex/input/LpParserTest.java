@@ -0,0 +1,118 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class LpParserTest {
+
+  private static final class Recorder implements LpListener {
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    public void variable(final int index, final String name) {
+      events.add("variable " + index + " " + name);
+    }
+
+    @Override
+    public void objectiveStart(final String name, final ObjectiveSense sense) {
+      events.add("objective " + name + " " + sense);
+    }
+
+    @Override
+    public void objectiveEnd() {
+      events.add("objective end");
+    }
+
+    @Override
+    public void constraintStart(final String name, final int lineNumber) {
+      events.add("constraint " + name + " " + lineNumber);
+    }
+
+    @Override
+    public void addend(final int variable, final double coefficient) {
+      events.add("addend " + variable + " " + coefficient);
+    }
+
+    @Override
+    public void constraintEnd(final ConstraintSense sense, final double rhs) {
+      events.add("constraint end " + sense + " " + rhs);
+    }
+
+    @Override
+    public void bound(final int variable, final ConstraintSense sense, final double value) {
+      events.add("bound " + variable + " " + sense + " " + value);
+    }
+
+    @Override
+    public void variableType(final int variable, final VariableType type) {
+      events.add("type " + variable + " " + type);
+    }
+
+    @Override
+    public void end() {
+      events.add("end");
+    }
+  }
+
+  @Test
+  void twoObjectivesTwoConstraints_eventsInOrderOfAppearance() throws IOException {
+    final var recorder = new Recorder();
+
+    LpParser.parse(Path.of("src/test/resources/2obj_2cons_all_variable_types.lp"), recorder);
+
+    assertEquals(List.of(
+        "objective obj1 MIN",
+        "variable 0 x", "addend 0 -0.5",
+        "variable 1 y", "addend 1 -2.0",
+        "variable 2 z", "addend 2 -8.0",
+        "objective end",
+        "objective obj2 MIN", "addend 1 1.0", "addend 0 1.0", "addend 2 1.0",
+        "objective end",
+        "constraint cons1 7", "addend 0 -199.0", "addend 1 10.0", "addend 2 1.0",
+        "constraint end LE 0.0",
+        "constraint cons2 8", "addend 1 1.0", "addend 2 1.0",
+        "constraint end GE 0.0",
+        "type 0 BINARY",
+        "type 1 INTEGER",
+        "end"), recorder.events);
+  }
+
+  @Test
+  void freeVariable_twoInfiniteBounds() throws IOException {
+    final var recorder = new Recorder();
+
+    LpParser.parse(Path.of("src/test/resources/1obj_1cons_all_variables_with_bounds.lp"), recorder);
+
+    assertEquals(1, recorder.events.stream().filter(e -> e.endsWith("GE -Infinity")).count());
+    assertEquals(1, recorder.events.stream().filter(e -> e.endsWith("LE Infinity")).count());
+  }
+
+  @Test
+  void noEndSection_throws() {
+    assertThrows(InputException.class,
+        () -> LpParser.parse(Path.of("src/test/resources/no_end_section.lp"), new LpListener() {}));
+  }
+
+  @Test
+  void constraintCutOffBySectionHeader_throws() {
+    final var recorder = new Recorder();
+
+    final var e = assertThrows(InputException.class, () -> LpParser.parse(
+        LpSource.of("Minimize\n obj: x\nSubject To\n c1: x + y\nBounds\n x <= 1\nEnd\n"),
+        recorder));
+
+    assertEquals("Line 4: constraint c1 without sense.", e.getMessage());
+    assertTrue(recorder.events.stream().noneMatch(event -> event.equals("end")));
+  }
+}
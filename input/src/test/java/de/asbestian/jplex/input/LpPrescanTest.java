@@ -0,0 +1,146 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.asbestian.jplex.input.LpParser.Section;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class LpPrescanTest {
+
+  @TempDir
+  static Path tempDir;
+
+  static Path generateModel(final Path directory, final int numberOfConstraints, final long seed)
+      throws IOException {
+    final var random = new Random(seed);
+    final var lp = new StringBuilder("\\ generated model\nMaximize\n obj: x0 + 2 x1\n   - 3 x2\nSubject To\n");
+    for (int i = 0; i < numberOfConstraints; ++i) {
+      lp.append(i % 7 == 0 ? "  c" : "c").append(i).append(": x").append(i);
+      final int addends = random.nextInt(6);
+      for (int j = 0; j < addends; ++j) {
+        lp.append(random.nextBoolean() ? " + " : " - ").append(random.nextInt(100)).append(" x")
+            .append(random.nextInt(numberOfConstraints));
+        if (random.nextInt(5) == 0) {
+          lp.append("\n    \\ continued\n  ");
+        }
+      }
+      lp.append(i % 3 == 0 ? "\n >= " : " <= ").append(random.nextInt(1000)).append('\n');
+    }
+    lp.append("Bounds\n");
+    for (int i = 0; i < numberOfConstraints; ++i) {
+      final int variable = random.nextInt(numberOfConstraints);
+      switch (random.nextInt(4)) {
+        case 0 -> lp.append(" x").append(variable).append(" <= ").append(100 + i).append('\n');
+        case 1 -> lp.append(-i).append(" <= x").append(variable).append('\n');
+        case 2 -> lp.append(-i).append(" <= x").append(variable).append(" <= ").append(i).append('\n');
+        default -> lp.append("x").append(variable).append(" free\n");
+      }
+    }
+    lp.append("Generals\n x1 x2\nBinary\n x3\nEnd\n");
+    final Path path = directory.resolve("generated_" + numberOfConstraints + "_" + seed + ".lp");
+    Files.writeString(path, lp);
+    return path;
+  }
+
+  static void assertSameModel(final LpFileReader expected, final LpFileReader actual) {
+    assertEquals(expected.getSymbolTable().names(), actual.getSymbolTable().names());
+    assertEquals(expected.getNumberOfObjectives(), actual.getNumberOfObjectives());
+    final var expectedMatrix = expected.getConstraintMatrix();
+    final var actualMatrix = actual.getConstraintMatrix();
+    assertArrayEquals(expectedMatrix.rowStart(), actualMatrix.rowStart());
+    assertArrayEquals(expectedMatrix.colIndex(), actualMatrix.colIndex());
+    assertArrayEquals(expectedMatrix.value(), actualMatrix.value());
+    assertArrayEquals(expectedMatrix.rhs(), actualMatrix.rhs());
+    assertArrayEquals(expectedMatrix.sense(), actualMatrix.sense());
+    for (int i = 0; i < expected.getNumberOfConstraints(); ++i) {
+      assertEquals(expected.getConstraint(i), actual.getConstraint(i));
+    }
+    assertArrayEquals(expected.getVariableStore().lb(), actual.getVariableStore().lb());
+    assertArrayEquals(expected.getVariableStore().ub(), actual.getVariableStore().ub());
+    assertArrayEquals(expected.getVariableStore().type(), actual.getVariableStore().type());
+  }
+
+  @Test
+  void generatedModel_chunksAtNamedConstraintsAndBlockStarts() throws IOException {
+    final Path path = generateModel(tempDir, 400, 1);
+    final var content = Files.readString(path);
+    final long from = content.indexOf("Subject To\n") + "Subject To\n".length();
+
+    final var layout = LpPrescan.scan(path, from, 5, 8).orElseThrow();
+
+    assertTrue(layout.constraintChunks().size() > 1);
+    assertTrue(layout.boundChunks().size() > 1);
+    assertEquals(Section.GENERAL, layout.tailSection());
+    assertEquals(content.indexOf("Generals"), layout.tail().from());
+    for (final var chunk : layout.constraintChunks()) {
+      assertTrue(content.substring((int) chunk.from()).strip().startsWith("c"));
+    }
+    assertEquals(from, layout.constraintChunks().getFirst().from());
+    assertEquals(content.indexOf("Bounds"), layout.constraintChunks().getLast().to());
+  }
+
+  @Test
+  void generatedModel_parallelEqualsSequential() throws IOException {
+    final var path = generateModel(tempDir, 2000, 2).toString();
+    final var expected = new LpFileReader(path);
+
+    for (final int blocks : new int[] {2, 3, 8, 64}) {
+      final var actual = new LpFileReader(path, blocks);
+      assertEquals(2000, actual.getNumberOfConstraints());
+      assertSameModel(expected, actual);
+    }
+  }
+
+  @Test
+  void testResources_parallelEqualsSequential() throws IOException {
+    try (final var files = Files.list(Path.of("src/test/resources"))) {
+      for (final var file : files.filter(f -> f.toString().endsWith(".lp")).toList()) {
+        final var expected = new LpFileReader(file.toString());
+        for (int blocks = 2; blocks <= 6; ++blocks) {
+          assertSameModel(expected, new LpFileReader(file.toString(), blocks));
+        }
+      }
+    }
+  }
+
+  @Test
+  void constraintWithoutSenseInLastChunk_sameFailureAsSequential() throws IOException {
+    final var lp = new StringBuilder("Minimize\n obj: x0\nSubject To\n");
+    for (int i = 0; i < 50; ++i) {
+      lp.append(" c").append(i).append(": x").append(i).append(" + x").append(i + 1).append(" >= 1\n");
+    }
+    lp.append(" last: x0 + x1\nBounds\n x0 <= 4\nEnd\n");
+    final Path path = tempDir.resolve("missing_sense_last.lp");
+    Files.writeString(path, lp);
+    final var expected = new LpFileReader(path.toString());
+    assertEquals("Line 54: constraint last without sense.",
+        expected.getFailure().orElseThrow().getMessage());
+
+    for (int blocks = 2; blocks <= 6; ++blocks) {
+      final var actual = new LpFileReader(path.toString(), blocks);
+      assertTrue(actual.hasFailed());
+      assertEquals(expected.getFailure().orElseThrow().getMessage(),
+          actual.getFailure().orElseThrow().getMessage());
+    }
+  }
+
+  @Test
+  void constraintWithoutSenseAtChunkBorder_empty() throws IOException {
+    final Path path = tempDir.resolve("missing_sense.lp");
+    Files.writeString(path, "Minimize\n obj: x\nSubject To\n c1: x + y >= 1\n c2: x + y\n"
+        + " c3: x - y <= 2\nEnd\n");
+
+    final var input = new LpFileReader(path.toString(), 3);
+
+    assertEquals(0, input.getNumberOfConstraints());
+    assertEquals(0, input.getNumberOfVariables());
+  }
+}
@@ -0,0 +1,158 @@
+package de.asbestian.jplex.input;
+
+import static de.asbestian.jplex.input.LpPrescanTest.assertSameModel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class LpSourceTest {
+
+  private static final Path PATH = Path.of("src/test/resources/2obj_2cons_all_variable_types.lp");
+
+  @TempDir
+  Path tempDir;
+
+  private static byte[] gzip(final byte[] bytes) throws IOException {
+    final var compressed = new ByteArrayOutputStream();
+    try (final var out = new GZIPOutputStream(compressed)) {
+      out.write(bytes);
+    }
+    return compressed.toByteArray();
+  }
+
+  // hands out at most one byte per read, as a slow pipe might
+  private static InputStream trickle(final byte[] bytes) {
+    return new ByteArrayInputStream(bytes) {
+      @Override
+      public synchronized int read(final byte[] b, final int off, final int len) {
+        return super.read(b, off, Math.min(len, 1));
+      }
+    };
+  }
+
+  @Test
+  void allKindsOfSources_sameModelAsFile() throws IOException {
+    final var expected = new LpFileReader(PATH.toString());
+    final byte[] bytes = Files.readAllBytes(PATH);
+
+    assertSameModel(expected, new LpFileReader(LpSource.of(PATH)));
+    assertSameModel(expected, new LpFileReader(LpSource.of(bytes)));
+    assertSameModel(expected, new LpFileReader(LpSource.of(Files.readString(PATH))));
+    assertSameModel(expected, new LpFileReader(LpSource.of(new ByteArrayInputStream(bytes))));
+    assertSameModel(expected, new LpFileReader(LpSource.of(trickle(bytes))));
+    assertSameModel(expected,
+        new LpFileReader(LpSource.of(Channels.newChannel(new ByteArrayInputStream(bytes)))));
+    try (final var stream = new FileInputStream(PATH.toFile())) {
+      assertSameModel(expected, new LpFileReader(LpSource.of(stream)));
+    }
+    try (final var channel = FileChannel.open(PATH)) {
+      assertSameModel(expected, new LpFileReader(LpSource.of(channel)));
+      assertTrue(channel.isOpen());
+    }
+  }
+
+  @Test
+  void streamWithLinesLongerThanBuffer_bufferGrows() {
+    final var text = new StringBuilder("Minimize\n obj:");
+    final int n = StreamSource.INITIAL_CAPACITY / 4;
+    for (int j = 0; j < n; ++j) {
+      text.append(" + x").append(j);
+    }
+    text.append("\nSubject To\n c: x0 + x1 >= 1\nEnd");
+    final byte[] bytes = text.toString().getBytes();
+
+    final var reader = new LpFileReader(LpSource.of(new ByteArrayInputStream(bytes)));
+
+    assertFalse(reader.hasFailed());
+    assertEquals(n, reader.getNumberOfVariables());
+    assertEquals(1, reader.getNumberOfConstraints());
+  }
+
+  @Test
+  void missingEndSectionInStream_failsLikeFile() throws IOException {
+    final Path path = Path.of("src/test/resources/no_end_section.lp");
+
+    final var reader = new LpFileReader(LpSource.of(trickle(Files.readAllBytes(path))));
+
+    assertTrue(reader.hasFailed());
+  }
+
+  @Test
+  void gzipCompressedSources_sameModelAsUncompressed() throws IOException {
+    // spans many decoder chunks
+    final Path path = LpPrescanTest.generateModel(tempDir, 20_000, 5);
+    final var expected = new LpFileReader(path.toString());
+    final byte[] compressed = gzip(Files.readAllBytes(path));
+    final Path gz = tempDir.resolve("generated.lp.gz");
+    Files.write(gz, compressed);
+
+    assertSameModel(expected, new LpFileReader(gz.toString()));
+    assertSameModel(expected, new LpFileReader(gz.toString(), true));
+    assertSameModel(expected, new LpFileReader(LpSource.of(compressed)));
+    assertSameModel(expected, new LpFileReader(LpSource.of(trickle(compressed))));
+    assertSameModel(expected,
+        new LpFileReader(LpSource.of(Channels.newChannel(new ByteArrayInputStream(compressed)))));
+    try (final var stream = new FileInputStream(gz.toFile())) {
+      assertSameModel(expected, new LpFileReader(LpSource.of(stream)));
+    }
+  }
+
+  @Test
+  void corruptGzipInput_fails() throws IOException {
+    final byte[] compressed = gzip(Files.readAllBytes(PATH));
+    compressed[compressed.length / 2] ^= 0x55;
+
+    assertTrue(new LpFileReader(LpSource.of(compressed)).hasFailed());
+  }
+
+  @Test
+  void decoderClosedWhileReading_streamClosedAfterRead() throws IOException {
+    final var reading = new AtomicBoolean();
+    final var closedWhileReading = new AtomicBoolean();
+    final var closed = new AtomicBoolean();
+    final var stream = new InputStream() {
+      @Override
+      public int read() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int read(final byte[] bytes, final int offset, final int length) {
+        reading.set(true);
+        LockSupport.parkNanos(1_000_000);
+        reading.set(false);
+        return length;
+      }
+
+      @Override
+      public void close() {
+        closedWhileReading.compareAndSet(false, reading.get());
+        closed.set(true);
+      }
+    };
+    final var decoder = new PipelinedDecoder(stream);
+    decoder.read(ByteBuffer.allocate(1));
+
+    decoder.close();
+
+    assertTrue(closed.get());
+    assertFalse(closedWhileReading.get());
+  }
+}
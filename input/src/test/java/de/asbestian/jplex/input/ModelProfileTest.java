@@ -0,0 +1,124 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.ModelProfile.ModelProfileBuilder;
+import de.asbestian.jplex.input.ModelProfile.Range;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class ModelProfileTest {
+
+  private static ModelProfile profile(final LpSource source) throws IOException {
+    final var builder = new ModelProfileBuilder();
+    LpParser.parse(source, builder);
+    return builder.build();
+  }
+
+  @Test
+  void twoObjectivesTwoConstraints_profile() throws IOException {
+    final var profile = profile(LpSource.of(
+        Path.of("src/test/resources/2obj_2cons_all_variable_types.lp")));
+
+    assertEquals(2, profile.rows());
+    assertEquals(3, profile.columns());
+    assertEquals(5, profile.nonzeros());
+    assertEquals(6, profile.objectiveNonzeros());
+    assertEquals(5 / 6., profile.density(), 1e-12);
+    assertEquals(1, profile.rows(ConstraintSense.LE));
+    assertEquals(1, profile.rows(ConstraintSense.GE));
+    assertEquals(0, profile.rows(ConstraintSense.EQ));
+    assertArrayEquals(new int[] {0, 0, 2}, profile.rowHistogram());
+    assertArrayEquals(new int[] {0, 1, 2}, profile.columnHistogram());
+    assertEquals(0, profile.singletonRows());
+    assertEquals(1, profile.singletonColumns());
+    assertEquals(new Range(1, 199), profile.coefficientRange());
+    assertEquals(new Range(0.5, 8), profile.objectiveRange());
+    assertTrue(profile.rhsRange().isEmpty());
+    assertEquals(1, profile.variables(VariableType.BINARY));
+    assertEquals(1, profile.variables(VariableType.INTEGER));
+    assertEquals(1, profile.variables(VariableType.CONTINUOUS));
+    assertEquals(1, profile.boxedVariables());
+    assertEquals(2, profile.lowerBoundedVariables());
+  }
+
+  @Test
+  void bounds_freeAndBoxedVariables() throws IOException {
+    final var profile = profile(LpSource.of(
+        Path.of("src/test/resources/1obj_1cons_all_variables_with_bounds.lp")));
+
+    assertEquals(1, profile.freeVariables());
+    assertEquals(2, profile.boxedVariables());
+    assertEquals(0, profile.fixedVariables());
+    assertEquals(new Range(1, 12), profile.boundRange());
+    assertEquals(new Range(120, 120), profile.rhsRange());
+    assertEquals(0, profile.singletonRows());
+  }
+
+  @Test
+  void repeatedVariableInRow_countedOnce() throws IOException {
+    final var profile = profile(LpSource.of(
+        "min\n obj: x\nst\n c: x + 2 x + y >= 1\n d: y = 4\nbounds\n x = 2\nend\n"));
+
+    assertEquals(3, profile.nonzeros());
+    assertEquals(new Range(1, 3), profile.coefficientRange());
+    assertArrayEquals(new int[] {0, 1, 1}, profile.rowHistogram());
+    assertEquals(1, profile.singletonRows());
+    assertEquals(1, profile.singletonColumns());
+    assertEquals(1, profile.fixedVariables());
+    assertEquals(1, profile.rows(ConstraintSense.EQ));
+  }
+
+  @Test
+  void toJson_holdsAllFigures() throws IOException {
+    final var json = profile(LpSource.of(
+        Path.of("src/test/resources/2obj_2cons_all_variable_types.lp"))).toJson();
+
+    assertTrue(json.startsWith("{\n  \"rows\": 2,\n  \"columns\": 3,"));
+    assertTrue(json.contains("\"rowNonzeros\": [{\"min\": 0, \"max\": 0, \"count\": 0}, "
+        + "{\"min\": 1, \"max\": 1, \"count\": 0}, {\"min\": 2, \"max\": 3, \"count\": 2}]"));
+    assertTrue(json.contains("\"rhsRange\": null"));
+    assertTrue(json.contains("\"coefficientRange\": {\"min\": 1.0, \"max\": 199.0}"));
+    assertTrue(json.endsWith("\"upperOnly\": 0}\n}"));
+  }
+
+  @Test
+  void readerWithProfile_sameProfileAsParser() throws IOException {
+    for (final var name : List.of("2obj_2cons_all_variable_types.lp",
+        "1obj_1cons_all_variables_with_bounds.lp", "1obj_3cons_sense_operators.lp")) {
+      final var source = LpSource.of(Path.of("src/test/resources", name));
+
+      final var reader = new LpFileReader(source, false, true);
+
+      assertEquals(profile(source).toJson(), reader.getProfile().orElseThrow().toJson());
+    }
+    assertTrue(new LpFileReader("src/test/resources/3obj_2cons.lp").getProfile().isEmpty());
+  }
+
+  @Test
+  void parallelReaderWithProfile_sameProfileAsParser(@TempDir final Path tempDir)
+      throws IOException {
+    final var source = LpSource.of(LpPrescanTest.generateModel(tempDir, 400, 3));
+
+    final var reader = new LpFileReader(source, 4, new ModelProfileBuilder());
+
+    assertEquals(profile(source).toJson(), reader.getProfile().orElseThrow().toJson());
+  }
+
+  @Test
+  void failedReader_noProfile() {
+    final var reader = new LpFileReader(
+        LpSource.of(Path.of("src/test/resources/no_end_section.lp")), false, true);
+
+    assertTrue(reader.hasFailed());
+    assertTrue(reader.getProfile().isEmpty());
+  }
+}
@@ -0,0 +1,101 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class ModelSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testResources_sameModelAfterRoundTrip() throws IOException {
+    try (final var files = Files.list(Path.of("src/test/resources"))) {
+      for (final var file : files.filter(f -> f.toString().endsWith(".lp")).toList()) {
+        final var expected = new LpFileReader(file.toString());
+        final Path snapshot = tempDir.resolve(file.getFileName() + ".snapshot");
+
+        ModelSnapshot.write(expected, snapshot);
+        final var actual = ModelSnapshot.read(snapshot);
+
+        assertEquals(expected.getSymbolTable().names(), actual.getSymbolTable().names());
+        for (int i = 0; i < expected.getNumberOfObjectives(); ++i) {
+          assertEquals(expected.getObjective(i), actual.getObjective(i));
+        }
+        for (int i = 0; i < expected.getNumberOfConstraints(); ++i) {
+          assertEquals(expected.getConstraint(i), actual.getConstraint(i));
+        }
+        for (int j = 0; j < expected.getNumberOfVariables(); ++j) {
+          assertEquals(expected.getVariable(j), actual.getVariable(j));
+        }
+        assertArrayEquals(expected.getConstraintMatrix().rowStart(),
+            actual.getConstraintMatrix().rowStart());
+        assertEquals(expected.getNumberOfObjectives(), actual.getNumberOfObjectives());
+      }
+    }
+  }
+
+  @Test
+  void otherFile_throws() throws IOException {
+    final Path file = tempDir.resolve("other.snapshot");
+    Files.writeString(file, "Minimize\n obj: x\nSubject To\n c: x >= 1\nEnd\n");
+
+    assertThrows(InputException.class, () -> ModelSnapshot.read(file));
+  }
+
+  @Test
+  void truncatedSnapshot_throws() throws IOException {
+    final Path snapshot = tempDir.resolve("3obj_2cons.snapshot");
+    ModelSnapshot.write(new LpFileReader("src/test/resources/3obj_2cons.lp"), snapshot);
+    final byte[] bytes = Files.readAllBytes(snapshot);
+    Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 10));
+
+    assertThrows(InputException.class, () -> ModelSnapshot.read(snapshot));
+  }
+
+  @Test
+  void everyTruncation_throws() throws IOException {
+    final Path snapshot = tempDir.resolve("2obj_2cons.snapshot");
+    ModelSnapshot.write(
+        new LpFileReader("src/test/resources/2obj_2cons_all_variable_types.lp"), snapshot);
+    final byte[] bytes = Files.readAllBytes(snapshot);
+
+    for (int length = 0; length < bytes.length; ++length) {
+      Files.write(snapshot, Arrays.copyOf(bytes, length));
+      assertThrows(InputException.class, () -> ModelSnapshot.read(snapshot));
+    }
+  }
+
+  @Test
+  void bitFlips_loadedOrRejectedWithInputException() throws IOException {
+    final Path snapshot = tempDir.resolve("2obj_2cons.snapshot");
+    ModelSnapshot.write(
+        new LpFileReader("src/test/resources/2obj_2cons_all_variable_types.lp"), snapshot);
+    final byte[] bytes = Files.readAllBytes(snapshot);
+
+    for (int i = 0; i < bytes.length; ++i) {
+      for (int bit = 0; bit < 8; ++bit) {
+        final byte[] flipped = bytes.clone();
+        flipped[i] ^= 1 << bit;
+        Files.write(snapshot, flipped);
+        try {
+          final var model = ModelSnapshot.read(snapshot);
+          for (int row = 0; row < model.getNumberOfConstraints(); ++row) {
+            model.getConstraint(row);
+          }
+        } catch (final InputException e) {
+          // rejected
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.MpsFileReader.MpsFormat;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class MpsFileReaderTest {
+
+  private static LpFileReader read(final String mps) throws IOException {
+    return MpsFileReader.read(LpSource.of(mps), MpsFormat.FREE);
+  }
+
+  @Test
+  void freeFormat_sameModelAsLp() throws IOException {
+    final var lp = new LpFileReader("src/test/resources/1obj_1cons_all_variables_with_bounds.lp");
+    final var mps = MpsFileReader.read("src/test/resources/1obj_1cons_all_variables_with_bounds.mps");
+
+    assertEquals(lp.getSymbolTable().names(), mps.getSymbolTable().names());
+    assertEquals(lp.getObjective(0), mps.getObjective(0));
+    assertArrayEquals(lp.getConstraintMatrix().rowStart(), mps.getConstraintMatrix().rowStart());
+    assertArrayEquals(lp.getConstraintMatrix().colIndex(), mps.getConstraintMatrix().colIndex());
+    assertArrayEquals(lp.getConstraintMatrix().value(), mps.getConstraintMatrix().value());
+    assertArrayEquals(lp.getConstraintMatrix().rhs(), mps.getConstraintMatrix().rhs());
+    assertArrayEquals(lp.getConstraintMatrix().sense(), mps.getConstraintMatrix().sense());
+    assertEquals(lp.getConstraint(0).coefficients(), mps.getConstraint(0).coefficients());
+    assertArrayEquals(lp.getVariableStore().lb(), mps.getVariableStore().lb());
+    assertArrayEquals(lp.getVariableStore().ub(), mps.getVariableStore().ub());
+    assertArrayEquals(lp.getVariableStore().type(), mps.getVariableStore().type());
+  }
+
+  @Test
+  void fixedFormat_namesWithSpaces() throws IOException {
+    final var model = MpsFileReader.read(
+        LpSource.of(Path.of("src/test/resources/fixed_names_with_spaces.mps")), MpsFormat.FIXED);
+
+    assertEquals(List.of("x 1", "y"), model.getSymbolTable().names().castToList());
+    assertEquals(ObjectiveSense.MIN, model.getObjective(0).sense());
+    assertEquals(1., model.getObjective(0).coefficients().get("x 1"));
+    assertEquals("row 1", model.getConstraint(0).name());
+    assertEquals(5, model.getConstraint(0).lineNumber());
+    assertEquals(ConstraintSense.GE, model.getConstraint(0).sense());
+    assertEquals(2., model.getConstraint(0).coefficients().get("x 1"));
+    assertEquals(-1., model.getConstraint(0).coefficients().get("y"));
+    assertEquals(ConstraintSense.EQ, model.getConstraint(1).sense());
+    assertEquals(3.5, model.getConstraint(1).rhs());
+    assertEquals(new Variable("x 1", VariableType.CONTINUOUS, 0, 8), model.getVariable(0));
+    assertEquals(new Variable("y", VariableType.CONTINUOUS, Double.NEGATIVE_INFINITY,
+        Double.POSITIVE_INFINITY), model.getVariable(1));
+  }
+
+  @Test
+  void columnMajorInput_rowsOrderedByColumn() throws IOException {
+    final var model = read("""
+        NAME
+        ROWS
+         N obj
+         L c1
+         G c2
+         N free
+        COLUMNS
+            a c2 1 free 9
+            b c1 2 c2 3
+            b c1 4
+            c c1 5 obj 1
+        RHS
+            rhs c1 10 c2 -1
+        ENDATA
+        """);
+
+    assertEquals(2, model.getNumberOfConstraints());
+    assertArrayEquals(new int[] {0, 2, 4}, model.getConstraintMatrix().rowStart());
+    assertArrayEquals(new int[] {1, 2, 0, 1}, model.getConstraintMatrix().colIndex());
+    assertArrayEquals(new double[] {6, 5, 1, 3}, model.getConstraintMatrix().value());
+    assertArrayEquals(new double[] {10, -1}, model.getConstraintMatrix().rhs());
+  }
+
+  @Test
+  void negativeUpperBoundWithoutLowerBound_freesLowerBound() throws IOException {
+    final var model = read("""
+        NAME
+        ROWS
+         N obj
+         L c
+        COLUMNS
+            x c 1
+            y c 1
+        BOUNDS
+         UP BND x -2
+         LO BND y -4
+         UP BND y -3
+        ENDATA
+        """);
+
+    assertEquals(Double.NEGATIVE_INFINITY, model.getVariable(0).lb());
+    assertEquals(-4, model.getVariable(1).lb());
+  }
+
+  @Test
+  void emptyRow_droppedIfSatisfied() throws IOException {
+    final var model = read("""
+        NAME
+        ROWS
+         N obj
+         L empty
+         L c
+        COLUMNS
+            x c 1
+        ENDATA
+        """);
+
+    assertEquals(1, model.getNumberOfConstraints());
+    assertEquals("c", model.getConstraint(0).name());
+  }
+
+  @Test
+  void invalidInput_throws() {
+    assertThrows(InputException.class, () -> read("""
+        NAME
+        ROWS
+         N obj
+         L c
+        COLUMNS
+            x c 1
+            y c 1
+            x obj 1
+        ENDATA
+        """));
+    assertThrows(InputException.class, () -> read("""
+        NAME
+        ROWS
+         N obj
+         L c
+        COLUMNS
+            x c 1
+        RANGES
+            rng c 4
+        ENDATA
+        """));
+    assertThrows(InputException.class, () -> read("""
+        NAME
+        ROWS
+         N obj
+         L c
+        COLUMNS
+            x d 1
+        ENDATA
+        """));
+    assertThrows(InputException.class, () -> read("""
+        NAME
+        ROWS
+         N obj
+         G empty
+        RHS
+            rhs empty 1
+        ENDATA
+        """));
+    assertThrows(InputException.class, () -> read("""
+        NAME
+        ROWS
+         N obj
+         L c
+        COLUMNS
+            x c 1
+        """));
+  }
+}
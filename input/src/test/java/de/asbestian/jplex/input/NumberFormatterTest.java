@@ -0,0 +1,63 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class NumberFormatterTest {
+
+  private static String format(final double value) {
+    final byte[] bytes = new byte[NumberFormatter.MAX_LENGTH];
+    final int end = NumberFormatter.format(value, bytes, 0);
+    return new String(bytes, 0, end, StandardCharsets.US_ASCII);
+  }
+
+  private static void assertRoundTrip(final double value) {
+    final byte[] bytes = new byte[NumberFormatter.MAX_LENGTH];
+    final int end = NumberFormatter.format(value, bytes, 0);
+    assertEquals(value, NumberParser.parse(ByteBuffer.wrap(bytes), 0, end), format(value));
+  }
+
+  @Test
+  void shortDecimals_fewestDigits() {
+    assertEquals("0", format(0));
+    assertEquals("-0", format(-0.));
+    assertEquals("4.4", format(4.4));
+    assertEquals("-199", format(-199));
+    assertEquals("0.05", format(0.05));
+    assertEquals("0.1", format(0.1));
+    assertEquals("123456.789", format(123456.789));
+    assertEquals("inf", format(Double.POSITIVE_INFINITY));
+    assertEquals("-inf", format(Double.NEGATIVE_INFINITY));
+  }
+
+  @Test
+  void otherNumbers_asByDoubleToString() {
+    assertEquals("1.0E300", format(1e300));
+    assertEquals(Double.toString(Math.PI), format(Math.PI));
+    assertEquals("4.9E-324", format(Double.MIN_VALUE));
+  }
+
+  @Test
+  void randomNumbers_roundTrip() {
+    final var random = new SplittableRandom(42);
+    for (int i = 0; i < 100_000; ++i) {
+      final double bits = Double.longBitsToDouble(random.nextLong());
+      if (!Double.isNaN(bits)) {
+        assertRoundTrip(bits);
+      }
+      assertRoundTrip(random.nextInt(1_000_000) / 1000.);
+      assertRoundTrip((random.nextDouble() - 0.5) * 1e6);
+    }
+  }
+
+  @Test
+  void nan_throws() {
+    assertThrows(IllegalArgumentException.class, () -> format(Double.NaN));
+  }
+}
@@ -0,0 +1,68 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class NumberParserTest {
+
+  private static void assertSameAsJdk(final String str) {
+    assertEquals(Double.doubleToRawLongBits(Double.parseDouble(str)),
+        Double.doubleToRawLongBits(NumberParser.parse(str)), str);
+  }
+
+  @Test
+  void parse_infinityKeywords() {
+    assertEquals(Double.POSITIVE_INFINITY, NumberParser.parse("inf"));
+    assertEquals(Double.POSITIVE_INFINITY, NumberParser.parse("+Infinity"));
+    assertEquals(Double.NEGATIVE_INFINITY, NumberParser.parse("-INF"));
+    assertEquals(Double.NEGATIVE_INFINITY, NumberParser.parse("-infinity"));
+  }
+
+  @Test
+  void parse_invalidNumbers_throw() {
+    assertThrows(NumberFormatException.class, () -> NumberParser.parse(""));
+    assertThrows(NumberFormatException.class, () -> NumberParser.parse("-"));
+    assertThrows(NumberFormatException.class, () -> NumberParser.parse("1.2.3"));
+    assertThrows(NumberFormatException.class, () -> NumberParser.parse("1e"));
+    assertThrows(NumberFormatException.class, () -> NumberParser.parse("infinit"));
+    assertThrows(NumberFormatException.class, () -> NumberParser.parse("x"));
+  }
+
+  @Test
+  void parse_edgeCases_sameAsJdk() {
+    final String[] values = {
+        "0", "-0", "+0.0", "0e10", ".5", "5.", "007", "0.000123", "1e22", "1e23", "9007199254740993",
+        "9999999999999999999", "18446744073709551615", "123456789012345678901234567890",
+        "0.1", "0.3", "2.2250738585072014E-308", "2.2250738585072011e-308", "4.9e-324", "1e-400",
+        "1.7976931348623157e308", "1.7976931348623159e308", "1e310", "-30.45", "1.5E+2", "3.5e-1",
+        "7.2057594037927933e16", "1e-22", "1e-23", "NaN", "Infinity", "1d", "0x1p3"};
+    for (final var value : values) {
+      assertSameAsJdk(value);
+    }
+  }
+
+  @Test
+  void parse_randomNumbers_sameAsJdk() {
+    final var random = new Random(7);
+    for (int k = 0; k < 200_000; ++k) {
+      assertSameAsJdk(Double.toString(Double.longBitsToDouble(random.nextLong())).replace("NaN", "1"));
+      assertSameAsJdk(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+      final var digits = new StringBuilder();
+      final int length = 1 + random.nextInt(22);
+      for (int i = 0; i < length; ++i) {
+        digits.append((char) ('0' + random.nextInt(10)));
+      }
+      final int dot = random.nextInt(length + 1);
+      digits.insert(dot, '.');
+      if (digits.length() == 1) {
+        digits.append('0');
+      }
+      digits.append('e').append(random.nextInt(700) - 350);
+      assertSameAsJdk(digits.toString());
+    }
+  }
+}
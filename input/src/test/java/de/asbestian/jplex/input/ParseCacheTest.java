@@ -0,0 +1,127 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class ParseCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  private List<Path> snapshots() throws IOException {
+    try (final var files = Files.list(tempDir.resolve("cache"))) {
+      return files.filter(f -> f.toString().endsWith(".snapshot")).toList();
+    }
+  }
+
+  @Test
+  void secondRead_loadsSnapshot() throws IOException {
+    final var cache = new ParseCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    final var path = "src/test/resources/2obj_2cons_all_variable_types.lp";
+
+    final var parsed = cache.read(path);
+    final var snapshot = snapshots().get(0);
+    Files.setLastModifiedTime(snapshot, FileTime.fromMillis(0));
+    final var cached = cache.read(path);
+
+    assertEquals(1, snapshots().size());
+    assertNotEquals(0, Files.getLastModifiedTime(snapshot).toMillis());
+    assertEquals(parsed.getSymbolTable().names(), cached.getSymbolTable().names());
+    assertEquals(parsed.getConstraint(1), cached.getConstraint(1));
+    assertEquals(parsed.getObjective(0), cached.getObjective(0));
+  }
+
+  @Test
+  void corruptSnapshot_deletedAndParsedAgain() throws IOException {
+    final var cache = new ParseCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    final var path = "src/test/resources/2obj_2cons_all_variable_types.lp";
+    final var parsed = cache.read(path);
+    final var snapshot = snapshots().get(0);
+    final byte[] bytes = Files.readAllBytes(snapshot);
+    Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+
+    final var reparsed = cache.read(path);
+
+    assertEquals(parsed.getConstraint(1), reparsed.getConstraint(1));
+    assertEquals(bytes.length, Files.size(snapshots().get(0)));
+  }
+
+  @Test
+  void changedContent_parsedAgain() throws IOException {
+    final var cache = new ParseCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    final Path file = tempDir.resolve("model.lp");
+    Files.writeString(file, "Minimize\n obj: x\nSubject To\n c: x >= 1\nEnd\n");
+    cache.read(file.toString());
+
+    Files.writeString(file, "Minimize\n obj: x + y\nSubject To\n c: x + y >= 1\nEnd\n");
+    final var model = cache.read(file.toString());
+
+    assertEquals(2, model.getNumberOfVariables());
+    assertEquals(2, snapshots().size());
+  }
+
+  @Test
+  void failedParse_notCached() throws IOException {
+    final var cache = new ParseCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+
+    cache.read("src/test/resources/no_end_section.lp");
+
+    assertTrue(snapshots().isEmpty());
+  }
+
+  @Test
+  void sizeLimit_leastRecentlyUsedEvicted() throws IOException {
+    final var first = "src/test/resources/3obj_2cons.lp";
+    final var second = "src/test/resources/2obj_2cons_only_binary_vars.lp";
+    final var cache = new ParseCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    cache.read(first);
+    final long size = Files.size(snapshots().get(0));
+    Files.setLastModifiedTime(snapshots().get(0), FileTime.fromMillis(0));
+
+    new ParseCache(tempDir.resolve("cache"), size).read(second);
+
+    assertEquals(1, snapshots().size());
+    assertTrue(snapshots().get(0).getFileName().toString()
+        .startsWith(String.format("%016x", XxHash64.hash(Path.of(second)))));
+  }
+
+  @Test
+  void contentChangedWhileReading_notCached() throws IOException {
+    final var cache = new ParseCache(tempDir.resolve("cache"), Long.MAX_VALUE);
+    final Path file = tempDir.resolve("model.lp");
+    Files.writeString(file, "Minimize\n obj: x\nSubject To\n c: x >= 1\nEnd\n");
+
+    // the file changes after its key is computed and before it is parsed
+    final var model = cache.read(file.toString(), () -> {
+      try {
+        Files.writeString(file, "Minimize\n obj: x + y\nSubject To\n c: x + y >= 1\nEnd\n");
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return new LpFileReader(file.toString());
+    });
+
+    assertEquals(2, model.getNumberOfVariables());
+    assertTrue(snapshots().isEmpty());
+    assertEquals(2, cache.read(file.toString()).getNumberOfVariables());
+    assertEquals(1, snapshots().size());
+  }
+
+  @Test
+  void negativeSizeLimit_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new ParseCache(tempDir.resolve("cache"), -1));
+  }
+}
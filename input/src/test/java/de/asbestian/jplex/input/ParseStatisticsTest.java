@@ -0,0 +1,90 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import de.asbestian.jplex.input.LpParser.Section;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class ParseStatisticsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void twoObjectivesTwoConstraints_countsInputAndTimesSections() throws IOException {
+    final var path = "src/test/resources/2obj_2cons_all_variable_types.lp";
+
+    final var statistics = new LpFileReader(path).getStatistics();
+
+    assertEquals(Files.size(Path.of(path)), statistics.bytes());
+    assertEquals(11, statistics.addends());
+    assertEquals(3, statistics.names());
+    assertTrue(statistics.lines() > 0);
+    assertEquals(List.of(Section.START, Section.OBJECTIVE, Section.CONSTRAINTS, Section.BINARY,
+        Section.GENERAL, Section.END), List.copyOf(statistics.sectionTimes().keySet()));
+    statistics.sectionTimes().values().forEach(time -> assertTrue(time.wallNanos() >= 0));
+  }
+
+  @Test
+  void failedInput_statisticsUpToFailure() {
+    final var reader = new LpFileReader("src/test/resources/no_end_section.lp");
+
+    assertTrue(reader.hasFailed());
+    assertTrue(reader.getStatistics().lines() > 0);
+    assertFalse(reader.getStatistics().sectionTimes().isEmpty());
+  }
+
+  @Test
+  void parallelRead_sameCountsAsSequential() throws IOException {
+    final Path path = LpPrescanTest.generateModel(tempDir, 400, 5);
+
+    final var sequential = new LpFileReader(path.toString(), 1).getStatistics();
+    final var parallel = new LpFileReader(path.toString(), 4).getStatistics();
+
+    assertEquals(sequential.bytes(), parallel.bytes());
+    assertEquals(sequential.addends(), parallel.addends());
+    assertEquals(sequential.names(), parallel.names());
+    assertEquals(sequential.sectionTimes().keySet(), parallel.sectionTimes().keySet());
+  }
+
+  @Test
+  void parallelReadOnSingleWorker_cpuNotCountedTwice()
+      throws IOException, InterruptedException, ExecutionException {
+    final var threads = ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled());
+    final Path path = LpPrescanTest.generateModel(tempDir, 20000, 7);
+    new LpFileReader(path.toString(), 4); // loads the classes used
+    final Queue<Thread> workers = new ConcurrentLinkedQueue<>();
+    final var pool = new ForkJoinPool(1, p -> {
+      final var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      workers.add(worker);
+      return worker;
+    }, null, false);
+    try {
+      // the reader runs on the only worker, which then runs all chunks while joining them
+      final var statistics = pool.submit(() -> new LpFileReader(path.toString(), 4)
+          .getStatistics()).get();
+      final long used = workers.stream().mapToLong(w -> threads.getThreadCpuTime(w.getId())).sum();
+      final long counted = statistics.sectionTimes().values().stream()
+          .mapToLong(time -> time.cpuNanos()).sum();
+
+      assertTrue(counted <= used, counted + " ns counted, " + used + " ns used");
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class ParseTraceTest {
+
+  @Test
+  void fewerStepsThanCapacity_allKept() {
+    final var trace = new ParseTrace(3);
+
+    trace.add("Line %d: addend %s %s.", 1, 2.0, "x");
+    trace.add("Line %d: addend %s %s.", 1, -1.0, "y");
+
+    assertEquals(List.of("Line 1: addend 2.0 x.", "Line 1: addend -1.0 y."), trace.steps());
+  }
+
+  @Test
+  void moreStepsThanCapacity_mostRecentKeptInOrder() {
+    final var trace = new ParseTrace(3);
+
+    for (int i = 0; i < 7; ++i) {
+      trace.add("step %d", i);
+    }
+
+    assertEquals(List.of("step 4", "step 5", "step 6"), trace.steps());
+  }
+
+  @Test
+  void nonPositiveCapacity_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new ParseTrace(0));
+  }
+}
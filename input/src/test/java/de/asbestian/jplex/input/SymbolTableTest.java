@@ -0,0 +1,41 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** @author Sebastian Schenker */
+class SymbolTableTest {
+
+  @Test
+  void intern_indicesInOrderOfFirstAppearance() {
+    final var symbols = new SymbolTable();
+
+    assertEquals(0, symbols.intern("y"));
+    assertEquals(1, symbols.intern("x"));
+    assertEquals(0, symbols.intern("y"));
+    assertEquals(2, symbols.intern("z"));
+
+    assertEquals(3, symbols.size());
+    assertEquals("x", symbols.name(1));
+    assertEquals(2, symbols.indexOf("z"));
+    assertEquals(-1, symbols.indexOf("w"));
+  }
+
+  @Test
+  void intern_manyNames() {
+    final var symbols = new SymbolTable();
+    final int n = 100_000;
+
+    for (int i = 0; i < n; ++i) {
+      assertEquals(i, symbols.intern("x" + i));
+    }
+
+    assertEquals(n, symbols.size());
+    for (int i = 0; i < n; ++i) {
+      assertEquals(i, symbols.indexOf("x" + i));
+      assertEquals("x" + i, symbols.name(i));
+    }
+    assertEquals(n, symbols.names().size());
+  }
+}
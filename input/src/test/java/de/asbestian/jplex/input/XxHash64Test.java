@@ -0,0 +1,31 @@
+package de.asbestian.jplex.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class XxHash64Test {
+
+  @TempDir
+  Path tempDir;
+
+  private long hash(final String content) throws IOException {
+    final Path file = tempDir.resolve("content");
+    Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+    return XxHash64.hash(file);
+  }
+
+  @Test
+  void referenceValues() throws IOException {
+    assertEquals(0xEF46DB3751D8E999L, hash(""));
+    assertEquals(0xD24EC4F1A98C6E5BL, hash("a"));
+    assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+    assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition"));
+  }
+}
@@ -0,0 +1,21 @@
+* 1obj_1cons_all_variables_with_bounds.lp in free MPS format
+NAME example
+OBJSENSE
+    MAX
+ROWS
+ N  cost
+ L  cons
+COLUMNS
+    x  cost  -2  cons  4.4
+    MARKER  'MARKER'  'INTORG'
+    y  cost  -3  cons  5.5
+    MARKER  'MARKER'  'INTEND'
+    z  cost  4  cons  6.6
+RHS
+    RHS  cons  120
+BOUNDS
+ FR BND  x
+ LO BND  y  10
+ UP BND  y  12
+ BV BND  z
+ENDATA
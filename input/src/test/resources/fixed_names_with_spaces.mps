@@ -0,0 +1,16 @@
+* fixed MPS with spaces in names
+NAME          fixed
+ROWS
+ N  obj
+ G  row 1
+ E  row 2
+COLUMNS
+    x 1       obj       1              row 1     2
+    x 1       row 2     1
+    y         row 1     -1             row 2     1
+RHS
+    RHS       row 1     1              row 2     3.5
+BOUNDS
+ UP BND       x 1       8
+ MI BND       y
+ENDATA
@@ -0,0 +1,479 @@
+package de.asbestian.jplex.runner;
+
+import de.asbestian.jplex.input.Constraint.ConstraintSense;
+import de.asbestian.jplex.input.InputException;
+import de.asbestian.jplex.input.LpListener;
+import de.asbestian.jplex.input.LpParser;
+import de.asbestian.jplex.input.LpSource;
+import de.asbestian.jplex.input.Objective.ObjectiveSense;
+import de.asbestian.jplex.input.Variable.VariableType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts lp files into free MPS format without building the model. The parsed coefficients,
+ * which arrive row by row, are collected in a buffer of bounded size; whenever it is full, its
+ * content is bucketed by column and spilled to a temporary file. Finally, the spilled runs and the
+ * remaining buffer are merged column by column into the COLUMNS section. The memory needed for
+ * the coefficients thus stays within the given budget, whatever the size of the input; names,
+ * bounds and types of rows and columns are kept in memory. At most {@value #MAX_FAN_IN} runs are
+ * merged at once, each read through a buffer of {@value #IO_BUFFER_SIZE} bytes; if more runs have
+ * been spilled, they are first merged group by group into fewer, longer runs.
+ *
+ * <p>Coefficients of a variable occurring several times within a row are summed up. The first
+ * objective becomes the objective row; any further objectives become additional N rows, which
+ * MPS readers usually drop.
+ *
+ * @author Sebastian Schenker
+ */
+public final class LpToMpsConverter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LpToMpsConverter.class);
+  // bytes per buffered coefficient: column, row, value and position when sorted by column
+  static final int ENTRY_BYTES = Integer.BYTES + Integer.BYTES + Double.BYTES + Integer.BYTES;
+  static final int MAX_FAN_IN = 64;
+  private static final int IO_BUFFER_SIZE = 1 << 16;
+  private static final String RHS = "RHS";
+  private static final String BOUND = "BND";
+
+  private final int capacity;
+  private final Path temporaryDirectory;
+  private final int maxFanIn;
+
+  /**
+   * Creates a converter buffering coefficients in at most memoryBudget bytes and spilling them to
+   * files within the given directory.
+   */
+  public LpToMpsConverter(final long memoryBudget, final Path temporaryDirectory) {
+    this(memoryBudget, temporaryDirectory, MAX_FAN_IN);
+  }
+
+  LpToMpsConverter(final long memoryBudget, final Path temporaryDirectory, final int maxFanIn) {
+    if (memoryBudget < ENTRY_BYTES || maxFanIn < 2) {
+      throw new IllegalArgumentException(
+          "Memory budget must hold at least one coefficient and fan-in must be at least 2.");
+    }
+    this.capacity = (int) Math.min(memoryBudget / ENTRY_BYTES, Integer.MAX_VALUE - 8);
+    this.temporaryDirectory = temporaryDirectory;
+    this.maxFanIn = maxFanIn;
+  }
+
+  /**
+   * Converts the given lp source into an MPS file at the given path and returns the number of
+   * runs spilled to disk.
+   *
+   * @throws InputException if the source does not hold a valid lp file
+   */
+  public int convert(final LpSource source, final Path target) throws IOException {
+    final var model = new StreamedModel();
+    try {
+      LpParser.parse(source, model);
+      model.finish();
+      try (final Writer out = new BufferedWriter(new OutputStreamWriter(
+          Files.newOutputStream(target), StandardCharsets.ISO_8859_1), IO_BUFFER_SIZE)) {
+        model.write(out, target.getFileName().toString());
+      }
+      LOGGER.debug("Converted {} with {} spilled runs.", source, model.spilled);
+      return model.spilled;
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      model.deleteRuns();
+    }
+  }
+
+  /** Run of coefficients spilled to disk, ordered by column and, within a column, by row. */
+  private static final class Run {
+    private final Path path;
+    private int index; // position among the runs being merged, which are ordered by row
+    private DataInputStream in;
+    private int column;
+    private int row;
+    private double value;
+
+    Run(final Path path) {
+      this.path = path;
+    }
+
+    void open(final int position) throws IOException {
+      index = position;
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER_SIZE));
+    }
+
+    /** Reads the next coefficient and returns false if there is none. */
+    boolean next() throws IOException {
+      try {
+        column = in.readInt();
+      } catch (final EOFException e) {
+        in.close();
+        column = Integer.MAX_VALUE;
+        return false;
+      }
+      row = in.readInt();
+      value = in.readDouble();
+      return true;
+    }
+  }
+
+  /** Receives the parsed lp file, buffering and spilling its coefficients. */
+  private final class StreamedModel implements LpListener {
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<String> rowNames = new ArrayList<>();
+    private byte[] rowType = new byte[16]; // ordinal of the sense, or -1 for N rows
+    private double[] rhs = new double[16];
+    private double[] lb = new double[16];
+    private double[] ub = new double[16];
+    private byte[] columnType = new byte[16];
+    private ObjectiveSense sense = ObjectiveSense.MIN;
+    private int currentRow = -1;
+    // buffered coefficients in order of arrival, i.e. by row
+    private int[] bufferedColumn = new int[Math.min(capacity, 1 << 16)];
+    private int[] bufferedRow = new int[bufferedColumn.length];
+    private double[] bufferedValue = new double[bufferedColumn.length];
+    // positions of the buffered coefficients ordered by column, filled by sortByColumn
+    private int[] order = new int[bufferedColumn.length];
+    private int size = 0;
+    // runs not yet merged, ordered by row
+    private final List<Run> runs = new ArrayList<>();
+    private int spilled = 0;
+
+    @Override
+    public void variable(final int index, final String name) {
+      columnNames.add(name);
+      if (index == lb.length) {
+        lb = Arrays.copyOf(lb, 2 * index);
+        ub = Arrays.copyOf(ub, 2 * index);
+        columnType = Arrays.copyOf(columnType, 2 * index);
+      }
+      ub[index] = Double.POSITIVE_INFINITY;
+      columnType[index] = (byte) VariableType.CONTINUOUS.ordinal();
+    }
+
+    @Override
+    public void objectiveStart(final String name, final ObjectiveSense objectiveSense) {
+      sense = objectiveSense;
+      startRow(name, (byte) -1);
+    }
+
+    @Override
+    public void constraintStart(final String name, final int lineNumber) {
+      startRow(name, (byte) 0);
+    }
+
+    private void startRow(final String name, final byte type) {
+      ++currentRow;
+      rowNames.add(name);
+      if (currentRow == rowType.length) {
+        rowType = Arrays.copyOf(rowType, 2 * currentRow);
+        rhs = Arrays.copyOf(rhs, 2 * currentRow);
+      }
+      rowType[currentRow] = type;
+    }
+
+    @Override
+    public void addend(final int variable, final double coefficient) {
+      if (size == bufferedColumn.length) {
+        // old and new buffers coexist while copying, so together they must fit into the budget
+        final int length = (int) Math.min(2L * size, capacity - size);
+        if (length > size) {
+          bufferedColumn = Arrays.copyOf(bufferedColumn, length);
+          bufferedRow = Arrays.copyOf(bufferedRow, length);
+          bufferedValue = Arrays.copyOf(bufferedValue, length);
+          order = new int[length];
+        } else {
+          spill();
+        }
+      }
+      bufferedColumn[size] = variable;
+      bufferedRow[size] = currentRow;
+      bufferedValue[size] = coefficient;
+      ++size;
+    }
+
+    @Override
+    public void constraintEnd(final ConstraintSense constraintSense, final double value) {
+      rowType[currentRow] = (byte) constraintSense.ordinal();
+      rhs[currentRow] = value;
+    }
+
+    @Override
+    public void bound(final int variable, final ConstraintSense boundSense, final double value) {
+      switch (boundSense) {
+        case LE -> ub[variable] = value;
+        case GE -> lb[variable] = value;
+        case EQ -> {
+          lb[variable] = value;
+          ub[variable] = value;
+        }
+      }
+    }
+
+    @Override
+    public void variableType(final int variable, final VariableType type) {
+      columnType[variable] = (byte) type.ordinal();
+    }
+
+    /**
+     * Buckets the positions of the buffered coefficients by column into order, leaving the buffer
+     * itself as it is. Since the coefficients arrived by row, the rows within each column stay
+     * ordered.
+     */
+    private void sortByColumn() {
+      final int[] start = new int[columnNames.size() + 1];
+      for (int i = 0; i < size; ++i) {
+        ++start[bufferedColumn[i] + 1];
+      }
+      for (int j = 0; j < columnNames.size(); ++j) {
+        start[j + 1] += start[j];
+      }
+      for (int i = 0; i < size; ++i) {
+        order[start[bufferedColumn[i]]++] = i;
+      }
+    }
+
+    private void spill() {
+      sortByColumn();
+      try {
+        final var run = createRun();
+        runs.add(run);
+        try (final var out = openRun(run)) {
+          for (int k = 0; k < size; ++k) {
+            final int i = order[k];
+            writeEntry(out, bufferedColumn[i], bufferedRow[i], bufferedValue[i]);
+          }
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      ++spilled;
+      LOGGER.debug("Spilled run {} of {} coefficients.", spilled, size);
+      size = 0;
+    }
+
+    private Run createRun() throws IOException {
+      return new Run(Files.createTempFile(temporaryDirectory, "lp2mps", ".run"));
+    }
+
+    private static DataOutputStream openRun(final Run run) throws IOException {
+      return new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(run.path), IO_BUFFER_SIZE));
+    }
+
+    private static void writeEntry(final DataOutputStream out, final int column, final int row,
+        final double value) throws IOException {
+      out.writeInt(column);
+      out.writeInt(row);
+      out.writeDouble(value);
+    }
+
+    void finish() throws IOException {
+      sortByColumn();
+      while (runs.size() > maxFanIn) {
+        mergeFirstRuns();
+      }
+    }
+
+    /** Replaces the first maxFanIn runs, which hold the lowest rows, by a single merged run. */
+    private void mergeFirstRuns() throws IOException {
+      final var merged = createRun();
+      runs.add(0, merged); // deleted along with the others on failure
+      final var group = runs.subList(1, maxFanIn + 1);
+      final var queue = open(group);
+      try (final var out = openRun(merged)) {
+        while (!queue.isEmpty()) {
+          final var run = queue.poll();
+          writeEntry(out, run.column, run.row, run.value);
+          if (run.next()) {
+            queue.add(run);
+          }
+        }
+      }
+      for (final var run : group) {
+        Files.deleteIfExists(run.path);
+      }
+      LOGGER.debug("Merged {} runs, {} runs left.", group.size(), runs.size() - group.size());
+      group.clear();
+    }
+
+    // opens the given runs, ordered by row, for merging by column; ties go to the lower rows
+    private PriorityQueue<Run> open(final List<Run> group) throws IOException {
+      final var queue = new PriorityQueue<Run>((a, b) -> a.column != b.column
+          ? Integer.compare(a.column, b.column)
+          : Integer.compare(a.index, b.index));
+      for (int k = 0; k < group.size(); ++k) {
+        final var run = group.get(k);
+        run.open(k);
+        if (run.next()) {
+          queue.add(run);
+        }
+      }
+      return queue;
+    }
+
+    void write(final Writer out, final String name) throws IOException {
+      out.write("NAME " + name + "\n");
+      if (sense == ObjectiveSense.MAX) {
+        out.write("OBJSENSE\n    MAX\n");
+      }
+      out.write("ROWS\n");
+      for (int i = 0; i <= currentRow; ++i) {
+        out.write(rowType[i] < 0 ? " N  " : switch (ConstraintSense.values()[rowType[i]]) {
+          case LE -> " L  ";
+          case GE -> " G  ";
+          case EQ -> " E  ";
+        });
+        out.write(rowNames.get(i));
+        out.write('\n');
+      }
+      out.write("COLUMNS\n");
+      writeColumns(out);
+      out.write("RHS\n");
+      for (int i = 0; i <= currentRow; ++i) {
+        if (rowType[i] >= 0 && rhs[i] != 0) {
+          out.write("    " + RHS + "  " + rowNames.get(i) + "  " + rhs[i] + "\n");
+        }
+      }
+      writeBounds(out);
+      out.write("ENDATA\n");
+    }
+
+    // merges the remaining runs and the buffer, which holds the highest rows
+    private void writeColumns(final Writer out) throws IOException {
+      final var queue = open(runs);
+      boolean inIntegerMarker = false;
+      int buffered = 0;
+      for (int j = 0; j < columnNames.size(); ++j) {
+        final boolean integer = columnType[j] != VariableType.CONTINUOUS.ordinal();
+        if (integer != inIntegerMarker) {
+          out.write(integer
+              ? "    MARKER  'MARKER'  'INTORG'\n"
+              : "    MARKER  'MARKER'  'INTEND'\n");
+          inIntegerMarker = integer;
+        }
+        final var entries = new ColumnWriter(out, columnNames.get(j));
+        while (!queue.isEmpty() && queue.peek().column == j) {
+          final var run = queue.poll();
+          do {
+            entries.add(run.row, run.value);
+          } while (run.next() && run.column == j);
+          if (run.column != Integer.MAX_VALUE) {
+            queue.add(run);
+          }
+        }
+        for (; buffered < size && bufferedColumn[order[buffered]] == j; ++buffered) {
+          entries.add(bufferedRow[order[buffered]], bufferedValue[order[buffered]]);
+        }
+        entries.declare();
+      }
+      if (inIntegerMarker) {
+        out.write("    MARKER  'MARKER'  'INTEND'\n");
+      }
+    }
+
+    /** Writes the coefficients of a column, summing up those of the same row. */
+    private final class ColumnWriter {
+      private final Writer out;
+      private final String name;
+      private int row = -1;
+      private double value;
+      private boolean written = false;
+
+      ColumnWriter(final Writer out, final String name) {
+        this.out = out;
+        this.name = name;
+      }
+
+      void add(final int nextRow, final double nextValue) throws IOException {
+        if (nextRow == row) {
+          value += nextValue;
+          return;
+        }
+        finish();
+        row = nextRow;
+        value = nextValue;
+      }
+
+      void finish() throws IOException {
+        if (row >= 0) {
+          out.write("    " + name + "  " + rowNames.get(row) + "  " + value + "\n");
+          row = -1;
+          written = true;
+        }
+      }
+
+      /** Declares the column by a zero objective coefficient if it has no coefficient at all. */
+      void declare() throws IOException {
+        finish();
+        if (!written && !rowNames.isEmpty() && rowType[0] < 0) {
+          out.write("    " + name + "  " + rowNames.get(0) + "  0\n");
+        }
+      }
+    }
+
+    private void writeBounds(final Writer out) throws IOException {
+      out.write("BOUNDS\n");
+      for (int j = 0; j < columnNames.size(); ++j) {
+        final String name = columnNames.get(j);
+        double lower = lb[j];
+        double upper = ub[j];
+        if (columnType[j] == VariableType.BINARY.ordinal()) {
+          out.write(" BV " + BOUND + "  " + name + "\n");
+          lower = Math.max(lower, 0);
+          upper = Math.min(upper, 1);
+          if (lower == 0 && upper == 1) {
+            continue;
+          }
+        }
+        if (lower == Double.NEGATIVE_INFINITY && upper == Double.POSITIVE_INFINITY) {
+          out.write(" FR " + BOUND + "  " + name + "\n");
+          continue;
+        }
+        if (lower == upper) {
+          out.write(" FX " + BOUND + "  " + name + "  " + lower + "\n");
+          continue;
+        }
+        if (lower == Double.NEGATIVE_INFINITY) {
+          out.write(" MI " + BOUND + "  " + name + "\n");
+        } else if (Double.doubleToRawLongBits(lower) != 0 || upper < 0) {
+          out.write(" LO " + BOUND + "  " + name + "  " + lower + "\n");
+        }
+        if (upper != Double.POSITIVE_INFINITY) {
+          out.write(" UP " + BOUND + "  " + name + "  " + upper + "\n");
+        } else if (columnType[j] == VariableType.INTEGER.ordinal()) {
+          // readers differ in the default upper bound of integer variables
+          out.write(" PL " + BOUND + "  " + name + "\n");
+        }
+      }
+    }
+
+    void deleteRuns() {
+      for (final var run : runs) {
+        try {
+          if (run.in != null) {
+            run.in.close();
+          }
+          Files.deleteIfExists(run.path);
+        } catch (final IOException e) {
+          LOGGER.warn("Could not delete {}: {}", run.path, e.getMessage());
+        }
+      }
+    }
+  }
+}
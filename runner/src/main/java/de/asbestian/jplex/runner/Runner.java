@@ -1,17 +1,118 @@
 package de.asbestian.jplex.runner;
 
+import de.asbestian.jplex.input.BatchLoader;
 import de.asbestian.jplex.input.LpFileReader;
+import de.asbestian.jplex.input.LpParser;
+import de.asbestian.jplex.input.LpSource;
+import de.asbestian.jplex.input.ModelProfile;
+import de.asbestian.jplex.input.ModelProfile.ModelProfileBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** @author Sebastian Schenker */
+/**
+ * Reads the lp file given as first argument, or standard input if there is none or it is "-",
+ * and reports its size, its {@link ModelProfile} and how it was parsed.
+ *
+ * <p>With {@code --batch [--threads n] path...}, reads all given files, and all lp files within
+ * given directories, concurrently and reports the result for each of them.
+ *
+ * <p>With {@code --profile [path]}, prints the {@link ModelProfile} of the given lp file, or of
+ * standard input, as JSON; the profile is collected while parsing, without building the model.
+ *
+ * <p>With {@code --mps [--memory bytes] input output}, converts the given lp file, or standard
+ * input if it is "-", into a free MPS file by {@link LpToMpsConverter}; the coefficients are
+ * buffered in at most the given number of bytes, a quarter of the maximal heap by default.
+ *
+ * @author Sebastian Schenker
+ */
 public class Runner {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Runner.class);
+  private static final long MAX_IN_FLIGHT_BYTES = Runtime.getRuntime().maxMemory() / 8;
 
-  public static void main(final String... args) {
-    final var reader = new LpFileReader(args[0]);
+  public static void main(final String... args) throws IOException, InterruptedException {
+    if (args.length > 0 && args[0].equals("--batch")) {
+      batch(List.of(args).subList(1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--profile")) {
+      final var profile = new ModelProfileBuilder();
+      LpParser.parse(source(List.of(args).subList(1, args.length)), profile);
+      System.out.println(profile.build().toJson());
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--mps")) {
+      mps(List.of(args).subList(1, args.length));
+      return;
+    }
+    final var reader = new LpFileReader(source(List.of(args)), false, true);
     LOGGER.info("Number of variables: {}", reader.getNumberOfVariables());
     LOGGER.info("Number of constraints: {}", reader.getNumberOfConstraints());
+    LOGGER.info("Parse statistics: {}", reader.getStatistics());
+    reader.getProfile().ifPresent(profile -> LOGGER.info("Model profile: {}", profile));
+  }
+
+  // returns the lp file given as first argument or standard input if there is none or it is "-"
+  private static LpSource source(final List<String> args) {
+    return args.isEmpty() || args.get(0).equals("-")
+        ? LpSource.of(System.in)
+        : LpSource.of(Path.of(args.get(0)));
+  }
+
+  private static void mps(final List<String> args) throws IOException {
+    long memory = Runtime.getRuntime().maxMemory() / 4;
+    final List<String> paths = new ArrayList<>();
+    for (int i = 0; i < args.size(); ++i) {
+      if (args.get(i).equals("--memory")) {
+        memory = Long.parseLong(args.get(++i));
+      } else {
+        paths.add(args.get(i));
+      }
+    }
+    if (paths.size() != 2) {
+      throw new IllegalArgumentException("Usage: --mps [--memory bytes] input output");
+    }
+    final var target = Path.of(paths.get(1)).toAbsolutePath();
+    final long start = System.nanoTime();
+    final int runs = new LpToMpsConverter(memory, target.getParent()).convert(source(paths), target);
+    LOGGER.info("Wrote {} with {} spilled runs in {} ms.", target, runs,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private static void batch(final List<String> args) throws IOException, InterruptedException {
+    int threads = Runtime.getRuntime().availableProcessors();
+    final List<Path> paths = new ArrayList<>();
+    for (int i = 0; i < args.size(); ++i) {
+      if (args.get(i).equals("--threads")) {
+        threads = Integer.parseInt(args.get(++i));
+      } else {
+        final var path = Path.of(args.get(i));
+        if (Files.isDirectory(path)) {
+          paths.addAll(BatchLoader.lpFiles(path));
+        } else {
+          paths.add(path);
+        }
+      }
+    }
+    final int[] failures = {0};
+    final long start = System.nanoTime();
+    new BatchLoader(threads, MAX_IN_FLIGHT_BYTES).load(paths, result -> {
+      final long millis = result.elapsedNanos() / 1_000_000;
+      if (result.succeeded()) {
+        LOGGER.info("{}: {} variables, {} constraints, {} ms", result.path(),
+            result.model().getNumberOfVariables(), result.model().getNumberOfConstraints(), millis);
+      } else {
+        ++failures[0];
+        LOGGER.warn("{}: failed after {} ms: {}", result.path(), millis,
+            result.failure().getMessage());
+      }
+    });
+    LOGGER.info("Read {} files, {} failed, in {} ms.", paths.size(), failures[0],
+        (System.nanoTime() - start) / 1_000_000);
   }
 }
@@ -0,0 +1,99 @@
+package de.asbestian.jplex.runner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.asbestian.jplex.input.LpFileReader;
+import de.asbestian.jplex.input.LpSource;
+import de.asbestian.jplex.input.MpsFileReader;
+import de.asbestian.jplex.input.MpsFileReader.MpsFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** @author Sebastian Schenker */
+class LpToMpsConverterTest {
+
+  private static final String LP = """
+      Maximize
+       obj: 3 x + 2 y - z + 0 w
+      Subject To
+       c1: x + y + z <= 10
+       c2: 2 x - y + x >= -4
+       c3: y + 4 z + 5 w = 7
+       c4: -x + 3 w <= 0
+      Bounds
+       x <= 8
+       -5 <= y <= 5
+       z free
+       w = 1.5
+      Generals
+       y
+      Binaries
+       x
+      End
+      """;
+
+  @TempDir
+  Path tempDir;
+
+  private LpFileReader convert(final long memoryBudget, final int expectedRuns)
+      throws IOException {
+    return convert(new LpToMpsConverter(memoryBudget, tempDir), expectedRuns);
+  }
+
+  private LpFileReader convert(final LpToMpsConverter converter, final int expectedRuns)
+      throws IOException {
+    final Path target = tempDir.resolve("converted.mps");
+    final int runs = converter.convert(LpSource.of(LP), target);
+    assertEquals(expectedRuns, runs);
+    try (final var files = Files.list(tempDir)) {
+      assertEquals(1, files.count());
+    }
+    return MpsFileReader.read(LpSource.of(target), MpsFormat.FREE);
+  }
+
+  private static void assertSameModel(final LpFileReader expected, final LpFileReader actual) {
+    assertEquals(expected.getSymbolTable().names(), actual.getSymbolTable().names());
+    assertEquals(expected.getObjective(0), actual.getObjective(0));
+    assertEquals(expected.getNumberOfConstraints(), actual.getNumberOfConstraints());
+    for (int i = 0; i < expected.getNumberOfConstraints(); ++i) {
+      assertEquals(expected.getConstraint(i).name(), actual.getConstraint(i).name());
+      assertEquals(expected.getConstraint(i).coefficients(), actual.getConstraint(i).coefficients());
+      assertEquals(expected.getConstraint(i).sense(), actual.getConstraint(i).sense());
+      assertEquals(expected.getConstraint(i).rhs(), actual.getConstraint(i).rhs());
+    }
+    assertArrayEquals(expected.getVariableStore().lb(), actual.getVariableStore().lb());
+    assertArrayEquals(expected.getVariableStore().ub(), actual.getVariableStore().ub());
+    assertArrayEquals(expected.getVariableStore().type(), actual.getVariableStore().type());
+  }
+
+  @Test
+  void largeBudget_nothingSpilled() throws IOException {
+    assertSameModel(new LpFileReader(LpSource.of(LP)), convert(1 << 20, 0));
+  }
+
+  @Test
+  void smallBudget_runsSpilledAndMerged() throws IOException {
+    // 15 addends, three per run
+    assertSameModel(new LpFileReader(LpSource.of(LP)),
+        convert(3 * LpToMpsConverter.ENTRY_BYTES, 4));
+  }
+
+  @Test
+  void manyRunsSmallFanIn_mergedInSeveralPasses() throws IOException {
+    assertSameModel(new LpFileReader(LpSource.of(LP)),
+        convert(new LpToMpsConverter(LpToMpsConverter.ENTRY_BYTES, tempDir, 2), 14));
+  }
+
+  @Test
+  void duplicateAddends_summed() throws IOException {
+    final var model = convert(LpToMpsConverter.ENTRY_BYTES, 14);
+
+    assertEquals(3., model.getConstraint(1).coefficients().get("x"));
+    assertTrue(model.getConstraint(1).coefficients().containsKey("y"));
+  }
+}